@@ -0,0 +1,73 @@
+package com.spinthechoice.garbage.jfr;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.SettingControl;
+
+/**
+ * Minimum time a computation must take to be recorded, such as {@code "20 ms"}.
+ * When recordings ask for different thresholds, the lowest one wins.
+ */
+public final class ComputeThresholdSetting extends SettingControl {
+    private static final String DEFAULT = "20 ms";
+
+    private volatile String value = DEFAULT;
+    private volatile long nanos = parse(DEFAULT);
+
+    @Override
+    public String combine(final Set<String> values) {
+        String lowest = null;
+        for (final String candidate : values) {
+            if (lowest == null || parse(candidate) < parse(lowest)) {
+                lowest = candidate;
+            }
+        }
+        return lowest == null ? DEFAULT : lowest;
+    }
+
+    @Override
+    public void setValue(final String value) {
+        this.nanos = parse(value);
+        this.value = value;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Parses a time span such as {@code "20 ms"}; units are ns, us, ms and s.
+     * Values that cannot be parsed are treated as no threshold at all.
+     */
+    static long parse(final String value) {
+        final String trimmed = value.trim();
+        int split = 0;
+        while (split < trimmed.length() && Character.isDigit(trimmed.charAt(split))) {
+            ++split;
+        }
+        if (split == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        final long amount = Long.parseLong(trimmed.substring(0, split));
+        switch (trimmed.substring(split).trim()) {
+            case "":
+            case "ns":
+                return amount;
+            case "us":
+                return TimeUnit.MICROSECONDS.toNanos(amount);
+            case "ms":
+                return TimeUnit.MILLISECONDS.toNanos(amount);
+            case "s":
+                return TimeUnit.SECONDS.toNanos(amount);
+            default:
+                return Long.MAX_VALUE;
+        }
+    }
+}
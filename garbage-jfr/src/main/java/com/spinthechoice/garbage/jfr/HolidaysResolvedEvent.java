@@ -0,0 +1,25 @@
+package com.spinthechoice.garbage.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.spinthechoice.garbage.HolidaysResolved")
+@Label("Holidays Resolved")
+@Category("Garbage")
+@Description("Holidays were resolved for a range of years")
+@Enabled(false)
+@StackTrace(false)
+final class HolidaysResolvedEvent extends Event {
+    @Label("Years")
+    int years;
+
+    @Label("Resolve Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long resolveTime;
+}
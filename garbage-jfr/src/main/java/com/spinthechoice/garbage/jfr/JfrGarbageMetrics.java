@@ -0,0 +1,133 @@
+package com.spinthechoice.garbage.jfr;
+
+import com.spinthechoice.garbage.GarbageInstrumentation;
+import com.spinthechoice.garbage.GarbageMetrics;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+
+/**
+ * Reports the library's activity as JDK Flight Recorder events.
+ * Every event is disabled by default and is enabled through recording settings:
+ * <ul>
+ *     <li>{@code com.spinthechoice.garbage.YearResolved}: a municipality's year was resolved</li>
+ *     <li>{@code com.spinthechoice.garbage.HolidaysResolved}: holidays were resolved</li>
+ *     <li>{@code com.spinthechoice.garbage.SlowComputation}: a computation took at least
+ *     {@code computeThreshold}, 20 ms by default</li>
+ * </ul>
+ * Whether each event is enabled is checked whenever a recording starts or stops.
+ * While no running recording enables any of them, the library does not time anything.
+ */
+public final class JfrGarbageMetrics implements GarbageMetrics {
+    private static final JfrGarbageMetrics INSTANCE = new JfrGarbageMetrics();
+
+    private final EventType yearResolvedType;
+    private final EventType holidaysResolvedType;
+    private final EventType slowComputationType;
+
+    private volatile boolean yearResolvedEnabled;
+    private volatile boolean holidaysResolvedEnabled;
+    private volatile boolean slowComputationEnabled;
+
+    private JfrGarbageMetrics() {
+        FlightRecorder.register(YearResolvedEvent.class);
+        FlightRecorder.register(HolidaysResolvedEvent.class);
+        FlightRecorder.register(SlowComputationEvent.class);
+        yearResolvedType = EventType.getEventType(YearResolvedEvent.class);
+        holidaysResolvedType = EventType.getEventType(HolidaysResolvedEvent.class);
+        slowComputationType = EventType.getEventType(SlowComputationEvent.class);
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recorderInitialized(final FlightRecorder recorder) {
+                update();
+            }
+
+            @Override
+            public void recordingStateChanged(final Recording recording) {
+                update();
+            }
+        });
+        update();
+    }
+
+    private void update() {
+        // an event type is enabled only while a running recording enables it
+        yearResolvedEnabled = yearResolvedType.isEnabled();
+        holidaysResolvedEnabled = holidaysResolvedType.isEnabled();
+        slowComputationEnabled = slowComputationType.isEnabled();
+    }
+
+    /**
+     * Gets the metrics.
+     * @return metrics
+     */
+    public static JfrGarbageMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Reports the library's activity to Flight Recorder.
+     * @see GarbageInstrumentation#install(GarbageMetrics)
+     */
+    public static void install() {
+        GarbageInstrumentation.install(INSTANCE);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return yearResolvedEnabled || holidaysResolvedEnabled || slowComputationEnabled;
+    }
+
+    @Override
+    public void computed(final long nanos) {
+        slowComputation(1, nanos);
+    }
+
+    @Override
+    public void rangeComputed(final long days, final long nanos) {
+        slowComputation(days, nanos);
+    }
+
+    private void slowComputation(final long days, final long nanos) {
+        if (!slowComputationEnabled) {
+            return;
+        }
+
+        final SlowComputationEvent event = new SlowComputationEvent();
+        event.days = days;
+        event.computeTime = nanos;
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+
+    @Override
+    public void yearResolved(final int year, final long nanos) {
+        if (!yearResolvedEnabled) {
+            return;
+        }
+
+        final YearResolvedEvent event = new YearResolvedEvent();
+        if (event.isEnabled()) {
+            event.year = year;
+            event.resolveTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void holidaysResolved(final int years, final long nanos) {
+        if (!holidaysResolvedEnabled) {
+            return;
+        }
+
+        final HolidaysResolvedEvent event = new HolidaysResolvedEvent();
+        if (event.isEnabled()) {
+            event.years = years;
+            event.resolveTime = nanos;
+            event.commit();
+        }
+    }
+}
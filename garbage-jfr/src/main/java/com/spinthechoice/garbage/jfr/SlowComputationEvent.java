@@ -0,0 +1,33 @@
+package com.spinthechoice.garbage.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.Timespan;
+
+@Name("com.spinthechoice.garbage.SlowComputation")
+@Label("Slow Computation")
+@Category("Garbage")
+@Description("A customer's collection took at least the threshold to compute")
+@Enabled(false)
+final class SlowComputationEvent extends Event {
+    @Label("Days")
+    @Description("Number of days computed")
+    long days;
+
+    @Label("Compute Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long computeTime;
+
+    @Label("Compute Threshold")
+    @Description("Computations faster than this are not recorded")
+    @Name("computeThreshold")
+    @SettingDefinition
+    boolean computeThreshold(final ComputeThresholdSetting setting) {
+        return computeTime >= setting.getNanos();
+    }
+}
@@ -0,0 +1,25 @@
+package com.spinthechoice.garbage.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.spinthechoice.garbage.YearResolved")
+@Label("Year Resolved")
+@Category("Garbage")
+@Description("A municipality's holidays, leap days and bulk weeks were resolved for a year")
+@Enabled(false)
+@StackTrace(false)
+final class YearResolvedEvent extends Event {
+    @Label("Year")
+    int year;
+
+    @Label("Resolve Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long resolveTime;
+}
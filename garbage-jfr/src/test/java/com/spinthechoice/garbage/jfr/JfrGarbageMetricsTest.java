@@ -0,0 +1,117 @@
+package com.spinthechoice.garbage.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import com.spinthechoice.garbage.Garbage;
+import com.spinthechoice.garbage.GarbageInstrumentation;
+import com.spinthechoice.garbage.GlobalGarbageConfiguration;
+import com.spinthechoice.garbage.Holiday;
+import com.spinthechoice.garbage.HolidayType;
+import com.spinthechoice.garbage.UserGarbageConfiguration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class JfrGarbageMetricsTest {
+    private static final String YEAR_RESOLVED = "com.spinthechoice.garbage.YearResolved";
+    private static final String HOLIDAYS_RESOLVED = "com.spinthechoice.garbage.HolidaysResolved";
+    private static final String SLOW_COMPUTATION = "com.spinthechoice.garbage.SlowComputation";
+
+    @Test
+    void testEventsAreRecorded() throws IOException {
+        final List<RecordedEvent> events = record("0 ns");
+        final long years = events.stream().filter(e -> e.getEventType().getName().equals(YEAR_RESOLVED)).count();
+        assertThat(years, is(3L));
+        assertThat(events.stream()
+                .filter(e -> e.getEventType().getName().equals(YEAR_RESOLVED))
+                .anyMatch(e -> e.getInt("year") == 2019), is(true));
+        assertThat(events.stream().anyMatch(e -> e.getEventType().getName().equals(HOLIDAYS_RESOLVED)), is(true));
+        assertThat(events.stream()
+                .filter(e -> e.getEventType().getName().equals(SLOW_COMPUTATION))
+                .anyMatch(e -> e.getLong("days") == 31L), is(true));
+    }
+
+    @Test
+    void testFastComputationsAreNotRecorded() throws IOException {
+        final List<RecordedEvent> events = record("1 s");
+        assertThat(events.stream().anyMatch(e -> e.getEventType().getName().equals(SLOW_COMPUTATION)), is(false));
+    }
+
+    @Test
+    void testDisabledWithoutRecording() {
+        assertThat(JfrGarbageMetrics.getInstance().isEnabled(), is(false));
+    }
+
+    @Test
+    void testDisabledWithoutGarbageEvents() {
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ThreadSleep");
+            recording.start();
+            assertThat(JfrGarbageMetrics.getInstance().isEnabled(), is(false));
+        }
+
+        try (Recording recording = new Recording()) {
+            recording.enable(SLOW_COMPUTATION);
+            recording.start();
+            assertThat(JfrGarbageMetrics.getInstance().isEnabled(), is(true));
+            recording.stop();
+            assertThat(JfrGarbageMetrics.getInstance().isEnabled(), is(false));
+        }
+    }
+
+    @Test
+    void testParseThreshold() {
+        assertThat(ComputeThresholdSetting.parse("20 ms"), is(20_000_000L));
+        assertThat(ComputeThresholdSetting.parse("5us"), is(5_000L));
+        assertThat(ComputeThresholdSetting.parse("2 s"), is(2_000_000_000L));
+        assertThat(ComputeThresholdSetting.parse("0"), is(0L));
+        assertThat(ComputeThresholdSetting.parse("soon"), is(Long.MAX_VALUE));
+    }
+
+    private static List<RecordedEvent> record(final String threshold) throws IOException {
+        final Path path = Files.createTempFile("garbage", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(YEAR_RESOLVED);
+            recording.enable(HOLIDAYS_RESOLVED);
+            recording.enable(SLOW_COMPUTATION).with("computeThreshold", threshold);
+            recording.start();
+            JfrGarbageMetrics.install();
+            try {
+                final Garbage garbage = new Garbage(globalConfig(), new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0));
+                garbage.compute(LocalDate.parse("2019-05-13"));
+                garbage.forEachDay(LocalDate.parse("2019-05-01"), LocalDate.parse("2019-06-01"), (day, flags) -> { });
+            } finally {
+                GarbageInstrumentation.uninstall();
+            }
+            recording.stop();
+            recording.dump(path);
+            return RecordingFile.readAllEvents(path);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static GlobalGarbageConfiguration globalConfig() {
+        return GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-05-01"))
+                .setGarbageEnabled(true)
+                .setGarbageWeeks(2)
+                .setHolidays(Holiday.builder()
+                        .setType(HolidayType.STATIC_DATE)
+                        .setMonth(Month.DECEMBER)
+                        .setDate(25)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of computing a single customer's schedule.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GarbageBenchmark {
+    private static final UserGarbageConfiguration USER = new UserGarbageConfiguration(DayOfWeek.THURSDAY, 0, 1);
+    private static final LocalDate DAY = LocalDate.parse("2019-11-28");
+    private static final LocalDate NEW_YEARS_EVE = LocalDate.parse("2019-12-31");
+    private static final LocalDate RANGE_START = LocalDate.parse("2019-01-01");
+    private static final int FIRST_COLD_YEAR = 1950;
+    private static final int COLD_YEARS = 200;
+
+    @Param({"12", "1200"})
+    private int bulkDayCount;
+
+    /**
+     * A configuration whose years have not been resolved, rebuilt before each iteration.
+     * Each invocation computes a day in the next year, so every invocation of a batch resolves a year.
+     */
+    @State(Scope.Thread)
+    public static class ColdConfiguration {
+        private Set<LocalDate> bulkDays;
+        private GlobalGarbageConfiguration config;
+        private int year;
+
+        @Setup(Level.Trial)
+        public void setUpBulkDays(final GarbageBenchmark benchmark) {
+            bulkDays = Municipalities.monthlyBulkDays(FIRST_COLD_YEAR, FIRST_COLD_YEAR + benchmark.bulkDayCount / 12);
+        }
+
+        @Setup(Level.Iteration)
+        public void setUpConfig() {
+            config = Municipalities.american(bulkDays);
+            year = FIRST_COLD_YEAR;
+        }
+    }
+
+    private Garbage garbage;
+    private long day;
+    private int dayIndex;
+
+    @Setup
+    public void setUp() {
+        final int years = bulkDayCount / 12;
+        garbage = new Garbage(Municipalities.american(Municipalities.monthlyBulkDays(2019, 2019 + years)), USER);
+        day = DAY.toEpochDay();
+    }
+
+    /**
+     * Computes a day whose year has already been resolved.
+     */
+    @Benchmark
+    public GarbageDay computeWarm() {
+        return garbage.compute(DAY);
+    }
+
+    /**
+     * Computes a day in each of {@value #COLD_YEARS} years of a new configuration, so each year must be resolved first.
+     * The configuration is built outside the measurement, and the score is the time of the whole batch.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 10, batchSize = COLD_YEARS)
+    @Measurement(iterations = 20, batchSize = COLD_YEARS)
+    public GarbageDay computeCold(final ColdConfiguration cold) {
+        return new Garbage(cold.config, USER).compute(LocalDate.of(cold.year++, 11, 28));
+    }
+
+    /**
+     * Alternates between the last day of a year and the first day of the next.
+     */
+    @Benchmark
+    public GarbageDay computeYearBoundary() {
+        dayIndex ^= 1;
+        return garbage.compute(NEW_YEARS_EVE.plusDays(dayIndex));
+    }
+
+    /**
+     * Computes flags of consecutive days without allocating.
+     */
+    @Benchmark
+    public int computeFlags() {
+        return garbage.computeFlags(day + (dayIndex++ & 1023));
+    }
+
+    /**
+     * Finds the next bulk day from days spread across many bulk days.
+     */
+    @Benchmark
+    public Optional<LocalDate> nextBulkDay() {
+        return garbage.nextBulkDay(LocalDate.ofEpochDay(day + (dayIndex++ & 4095)));
+    }
+
+    /**
+     * Walks ten years of summaries.
+     */
+    @Benchmark
+    public void computeRangeTenYears(final Blackhole blackhole) {
+        garbage.computeRange(RANGE_START, RANGE_START.plusYears(10)).forEach(blackhole::consume);
+    }
+
+    /**
+     * Walks ten years of flags without allocating per day.
+     */
+    @Benchmark
+    public void forEachDayTenYears(final Blackhole blackhole) {
+        garbage.forEachDay(RANGE_START, RANGE_START.plusYears(10), (epochDay, flags) -> blackhole.consume(flags));
+    }
+}
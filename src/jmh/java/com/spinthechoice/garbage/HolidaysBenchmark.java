@@ -0,0 +1,65 @@
+package com.spinthechoice.garbage;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of resolving holiday definitions to dates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HolidaysBenchmark {
+    private Holidays holidays;
+    private Holiday thanksgiving;
+    private Holiday memorialDay;
+    private int year;
+
+    @Setup
+    public void setUp() {
+        final GlobalGarbageConfiguration config = Municipalities.american();
+        holidays = new Holidays(config.getLeapDays());
+        thanksgiving = AmericanHolidays.thanksgiving();
+        memorialDay = AmericanHolidays.memorialDay();
+    }
+
+    /**
+     * Resolves all of a municipality's leap days for a year.
+     */
+    @Benchmark
+    public Set<LocalDate> dates() {
+        return holidays.dates(2000 + (year++ & 127));
+    }
+
+    /**
+     * Resolves a holiday counted from the start of the month.
+     */
+    @Benchmark
+    public Optional<LocalDate> nthDayOfWeek() {
+        return HolidayType.NTH_DAY_OF_WEEK.toLocalDate(thanksgiving, 2000 + (year++ & 127));
+    }
+
+    /**
+     * Resolves a holiday counted from the end of the month.
+     */
+    @Benchmark
+    public Optional<LocalDate> lastDayOfWeek() {
+        return HolidayType.NTH_DAY_OF_WEEK.toLocalDate(memorialDay, 2000 + (year++ & 127));
+    }
+}
@@ -0,0 +1,59 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Realistic municipality configurations for benchmarks.
+ * Holidays come from the tests' {@link AmericanHolidays}, which the jmh source set can see.
+ */
+final class Municipalities {
+    private Municipalities() {
+    }
+
+    /**
+     * Every-other-week recycling with American holidays as leap days and a bulk day each month.
+     * @return configuration
+     */
+    static GlobalGarbageConfiguration american() {
+        return american(monthlyBulkDays(2000, 2100));
+    }
+
+    /**
+     * Every-other-week recycling with American holidays as leap days and the given bulk days.
+     * @param bulkDays bulk days
+     * @return configuration
+     */
+    static GlobalGarbageConfiguration american(final Set<LocalDate> bulkDays) {
+        return GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-05-01"))
+                .setGarbageEnabled(true)
+                .setGarbageWeeks(1)
+                .setRecyclingEnabled(true)
+                .setRecyclingWeeks(2)
+                .setBulkDays(bulkDays)
+                .setHolidays(AmericanHolidays.newYearsEve(), AmericanHolidays.thanksgivingDayAfter())
+                .setLeapDays(AmericanHolidays.newYears(), AmericanHolidays.memorialDay(),
+                        AmericanHolidays.independenceDay(), AmericanHolidays.laborDay(),
+                        AmericanHolidays.thanksgiving(), AmericanHolidays.christmas())
+                .build();
+    }
+
+    /**
+     * Gets the first Monday of each month.
+     * @param fromYear first year, inclusive
+     * @param toYear last year, exclusive
+     * @return bulk days
+     */
+    static Set<LocalDate> monthlyBulkDays(final int fromYear, final int toYear) {
+        final Set<LocalDate> bulkDays = new HashSet<>();
+        for (LocalDate month = LocalDate.of(fromYear, 1, 1); month.getYear() < toYear; month = month.plusMonths(1)) {
+            final int daysToMonday = (DayOfWeek.MONDAY.getValue() - month.getDayOfWeek().getValue() + 7) % 7;
+            bulkDays.add(month.plusDays(daysToMonday));
+        }
+        return bulkDays;
+    }
+}
@@ -0,0 +1,115 @@
+package com.spinthechoice.garbage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A municipality's bulk days: explicit dates plus recurring schedules.
+ * Explicit dates are kept as a sorted array; schedules are resolved a year at a time when needed,
+ * and their days are kept with the rest of the year in {@link YearCalendar}.
+ */
+final class BulkDays {
+    private final long[] explicit;
+    private final List<BulkSchedule> schedules;
+    private final int firstScheduledYear;
+
+    BulkDays(final Set<LocalDate> explicit, final Set<BulkSchedule> schedules) {
+        this.explicit = explicit == null ? new long[0]
+                : explicit.stream().mapToLong(LocalDate::toEpochDay).sorted().toArray();
+        this.schedules = schedules == null ? new ArrayList<>() : new ArrayList<>(schedules);
+        this.firstScheduledYear = this.schedules.stream()
+                .mapToInt(BulkSchedule::getFirstYear)
+                .min()
+                .orElse(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the bulk days during a year.
+     * @param year year
+     * @return sorted, distinct epoch days
+     */
+    long[] epochDays(final int year) {
+        final long first = EpochDays.of(year, 1, 1);
+        final long last = EpochDays.of(year, 12, 31);
+        final int from = firstIndexOnOrAfter(first);
+        final int to = firstIndexOnOrAfter(last + 1);
+        if (year < firstScheduledYear) {
+            return Arrays.copyOfRange(explicit, from, to);
+        }
+
+        long[] days = Arrays.copyOfRange(explicit, from, to);
+        for (final BulkSchedule schedule : schedules) {
+            final long[] scheduled = schedule.epochDays(year);
+            final int count = days.length;
+            days = Arrays.copyOf(days, count + scheduled.length);
+            System.arraycopy(scheduled, 0, days, count, scheduled.length);
+        }
+        return Arrays.stream(days).sorted().distinct().toArray();
+    }
+
+    /**
+     * Gets the bulk days during a range of years.
+     * @param fromYear first year, inclusive
+     * @param toYear last year, exclusive
+     * @return sorted, distinct epoch days
+     */
+    long[] epochDays(final int fromYear, final int toYear) {
+        long[] days = new long[0];
+        for (int year = fromYear; year < toYear; ++year) {
+            final long[] resolved = epochDays(year);
+            final int count = days.length;
+            days = Arrays.copyOf(days, count + resolved.length);
+            System.arraycopy(resolved, 0, days, count, resolved.length);
+        }
+        return days;
+    }
+
+    /**
+     * Returns whether any bulk days come from schedules rather than explicit dates.
+     * @return {@code true} if there are bulk schedules
+     */
+    boolean isScheduled() {
+        return !schedules.isEmpty();
+    }
+
+    /**
+     * Gets the first year that scheduled bulk days may fall in.
+     * @return year, {@link Integer#MIN_VALUE} if a schedule has no start, or {@link Integer#MAX_VALUE} if there are
+     *         no schedules
+     */
+    int getFirstScheduledYear() {
+        return firstScheduledYear;
+    }
+
+    /**
+     * Gets the first explicit bulk day on or after the given day.
+     * @param epochDay day
+     * @return bulk day, or {@link Long#MAX_VALUE} if there is none
+     */
+    long nextExplicit(final long epochDay) {
+        final int index = firstIndexOnOrAfter(epochDay);
+        return index < explicit.length ? explicit[index] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Gets the last explicit bulk day on or before the given day.
+     * @param epochDay day
+     * @return bulk day, or {@link Long#MIN_VALUE} if there is none
+     */
+    long previousExplicit(final long epochDay) {
+        final int index = firstIndexOnOrAfter(epochDay + 1) - 1;
+        return index >= 0 ? explicit[index] : Long.MIN_VALUE;
+    }
+
+    private int firstIndexOnOrAfter(final long epochDay) {
+        return firstIndexOnOrAfter(explicit, epochDay);
+    }
+
+    private static int firstIndexOnOrAfter(final long[] days, final long epochDay) {
+        final int index = Arrays.binarySearch(days, epochDay);
+        return index < 0 ? -(index + 1) : index;
+    }
+}
@@ -0,0 +1,189 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Recurring bulk days, resolved a year at a time instead of listed individually.
+ * Each bulk day starts a week of bulk collection, as with {@link GlobalGarbageConfiguration.Builder#setBulkDays(Set)}.
+ */
+public final class BulkSchedule {
+    public static class Builder {
+        private BulkScheduleType type;
+        private DayOfWeek dayOfWeek;
+        private int weekIndex; // -1 for last, 0 for first, 1 for second, etc.
+        private LocalDate start;
+        private int weeks;
+        private Set<LocalDate> exclusions;
+
+        public Builder setType(final BulkScheduleType type) {
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * Sets the day of week of monthly bulk days.
+         * @param dayOfWeek day of week
+         * @return this builder instance
+         */
+        public Builder setDayOfWeek(final DayOfWeek dayOfWeek) {
+            this.dayOfWeek = dayOfWeek;
+            return this;
+        }
+
+        /**
+         * Sets the occurrence of the day of week of monthly bulk days.
+         * @param weekIndex 0 for the first occurrence in the month, 1 for the second, etc.; -1 for the last
+         * @return this builder instance
+         */
+        public Builder setWeekIndex(final int weekIndex) {
+            this.weekIndex = weekIndex;
+            return this;
+        }
+
+        /**
+         * Sets the first bulk day of a schedule every n weeks.
+         * @param start first bulk day
+         * @return this builder instance
+         */
+        public Builder setStart(final LocalDate start) {
+            this.start = start;
+            return this;
+        }
+
+        /**
+         * Sets the number of weeks between bulk days of a schedule every n weeks.
+         * @param weeks number of weeks
+         * @return this builder instance
+         */
+        public Builder setWeeks(final int weeks) {
+            this.weeks = weeks;
+            return this;
+        }
+
+        /**
+         * Sets bulk days to skip.
+         * @param exclusions dates that would otherwise be bulk days
+         * @return this builder instance
+         */
+        public Builder setExclusions(final LocalDate... exclusions) {
+            return setExclusions(new HashSet<>(asList(exclusions)));
+        }
+
+        /**
+         * Sets bulk days to skip.
+         * @param exclusions dates that would otherwise be bulk days
+         * @return this builder instance
+         */
+        public Builder setExclusions(final Set<LocalDate> exclusions) {
+            this.exclusions = exclusions;
+            return this;
+        }
+
+        /**
+         * Creates a new bulk schedule.
+         * @return bulk schedule
+         * @throws IllegalStateException if a setting required by the type is missing
+         */
+        public BulkSchedule build() {
+            if (type == BulkScheduleType.MONTHLY && dayOfWeek == null) {
+                throw new IllegalStateException("Monthly bulk schedule requires a day of week");
+            } else if (type == BulkScheduleType.EVERY_N_WEEKS && (start == null || weeks < 1)) {
+                throw new IllegalStateException(
+                        "Bulk schedule every n weeks requires a start date and a positive number of weeks");
+            } else if (type == null) {
+                throw new IllegalStateException("Bulk schedule type is required");
+            }
+            return new BulkSchedule(this);
+        }
+    }
+
+    private final BulkScheduleType type;
+    private final DayOfWeek dayOfWeek;
+    private final int weekIndex;
+    private final LocalDate start;
+    private final int weeks;
+    private final Set<LocalDate> exclusions;
+    private final long[] excludedEpochDays;
+
+    private BulkSchedule(final Builder builder) {
+        this.type = builder.type;
+        this.dayOfWeek = builder.dayOfWeek;
+        this.weekIndex = builder.weekIndex;
+        this.start = builder.start;
+        this.weeks = builder.weeks;
+        this.exclusions = builder.exclusions == null ? new HashSet<>() : new HashSet<>(builder.exclusions);
+        this.excludedEpochDays = exclusions.stream().mapToLong(LocalDate::toEpochDay).sorted().toArray();
+    }
+
+    public BulkScheduleType getType() {
+        return type;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public int getWeekIndex() {
+        return weekIndex;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public int getWeeks() {
+        return weeks;
+    }
+
+    public Set<LocalDate> getExclusions() {
+        return exclusions;
+    }
+
+    /**
+     * Gets the bulk days during a year.
+     * @param year requested year
+     * @return dates in order, without excluded dates
+     */
+    public List<LocalDate> toLocalDates(final int year) {
+        return Arrays.stream(epochDays(year))
+                .mapToObj(LocalDate::ofEpochDay)
+                .collect(toList());
+    }
+
+    /**
+     * Gets the bulk days during a year.
+     * @param year year
+     * @return sorted epoch days, without excluded dates
+     */
+    long[] epochDays(final int year) {
+        final long[] days = type.resolve(this, year);
+        if (excludedEpochDays.length == 0) {
+            return days;
+        }
+        return Arrays.stream(days).filter(day -> Arrays.binarySearch(excludedEpochDays, day) < 0).toArray();
+    }
+
+    /**
+     * Gets the first year with bulk days.
+     * @return year, or {@link Integer#MIN_VALUE} if the schedule has no start
+     */
+    int getFirstYear() {
+        return type == BulkScheduleType.EVERY_N_WEEKS ? start.getYear() : Integer.MIN_VALUE;
+    }
+
+    /**
+     * Creates a new builder instance.
+     * @return new builder instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
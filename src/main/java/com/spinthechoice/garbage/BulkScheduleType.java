@@ -0,0 +1,58 @@
+package com.spinthechoice.garbage;
+
+import java.util.Arrays;
+
+/**
+ * All methods of defining recurring bulk days.
+ */
+public enum BulkScheduleType {
+    /**
+     * Bulk days on the nth occurrence of a day of week in every month.
+     * For example, the first Monday of every month starts the first full week of the month.
+     */
+    MONTHLY {
+        @Override
+        long[] resolve(final BulkSchedule schedule, final int year) {
+            final long[] days = new long[MONTHS_PER_YEAR];
+            int count = 0;
+            for (int month = 1; month <= MONTHS_PER_YEAR; ++month) {
+                final long day = EpochDays.nthDayOfWeek(year, month,
+                        schedule.getDayOfWeek().getValue(), schedule.getWeekIndex());
+                if (day != Long.MIN_VALUE) {
+                    days[count++] = day;
+                }
+            }
+            return Arrays.copyOf(days, count);
+        }
+    },
+    /**
+     * Bulk days every n weeks, starting on a given date.
+     */
+    EVERY_N_WEEKS {
+        @Override
+        long[] resolve(final BulkSchedule schedule, final int year) {
+            final long start = schedule.getStart().toEpochDay();
+            final long period = (long) schedule.getWeeks() * DAYS_PER_WEEK;
+            final long firstOfYear = EpochDays.of(year, 1, 1);
+            final long lastOfYear = EpochDays.of(year, 12, 31);
+            final long from = Math.max(start, firstOfYear);
+            long day = start + (from - start + period - 1) / period * period;
+
+            final long[] days = new long[(int) ((lastOfYear - firstOfYear) / period) + 1];
+            int count = 0;
+            for (; day <= lastOfYear; day += period) {
+                days[count++] = day;
+            }
+            return Arrays.copyOf(days, count);
+        }
+    };
+
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final int DAYS_PER_WEEK = 7;
+
+    /**
+     * Gets the bulk days of a schedule during a year, without exclusions.
+     * @return sorted epoch days
+     */
+    abstract long[] resolve(BulkSchedule schedule, int year);
+}
@@ -0,0 +1,39 @@
+package com.spinthechoice.garbage;
+
+/**
+ * Three consecutive years of a municipality's calendar.
+ * Days on either side of a new year are answered by the same window, so walking across the boundary needs no lookups.
+ */
+final class CalendarWindow {
+    private final YearCalendar previous;
+    private final YearCalendar current;
+    private final YearCalendar next;
+
+    CalendarWindow(final YearCalendar previous, final YearCalendar current, final YearCalendar next) {
+        this.previous = previous;
+        this.current = current;
+        this.next = next;
+    }
+
+    YearCalendar getCurrent() {
+        return current;
+    }
+
+    YearCalendar getNext() {
+        return next;
+    }
+
+    boolean contains(final long epochDay) {
+        return epochDay >= previous.getFirstEpochDay() && epochDay <= next.getLastEpochDay();
+    }
+
+    YearCalendar yearOf(final long epochDay) {
+        if (epochDay < current.getFirstEpochDay()) {
+            return previous;
+        } else if (epochDay > current.getLastEpochDay()) {
+            return next;
+        } else {
+            return current;
+        }
+    }
+}
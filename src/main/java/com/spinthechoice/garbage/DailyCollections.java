@@ -0,0 +1,112 @@
+package com.spinthechoice.garbage;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+/**
+ * The schedule classes of a municipality collected on a single day.
+ * Classes are numbered as by {@link GarbageBatch#indexOf(UserGarbageConfiguration)}.
+ */
+public final class DailyCollections {
+    private final LocalDate date;
+    private final ScheduleClasses classes;
+    private final BitSet garbage;
+    private final BitSet recycling;
+    private final BitSet bulk;
+
+    DailyCollections(final LocalDate date, final ScheduleClasses classes,
+                     final BitSet garbage, final BitSet recycling, final BitSet bulk) {
+        this.date = date;
+        this.classes = classes;
+        this.garbage = garbage;
+        this.recycling = recycling;
+        this.bulk = bulk;
+    }
+
+    /**
+     * Returns the day in question.
+     * @return the day in question
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Gets the classes that will have garbage collected.
+     * @return copy of the set of class indexes
+     */
+    public BitSet getGarbageClasses() {
+        return (BitSet) garbage.clone();
+    }
+
+    /**
+     * Gets the classes that will have recycling collected.
+     * @return copy of the set of class indexes
+     */
+    public BitSet getRecyclingClasses() {
+        return (BitSet) recycling.clone();
+    }
+
+    /**
+     * Gets the classes that will have bulk garbage collected.
+     * @return copy of the set of class indexes
+     */
+    public BitSet getBulkClasses() {
+        return (BitSet) bulk.clone();
+    }
+
+    /**
+     * Gets the classes with any of the given kinds of collection.
+     * @param flags bitwise combination of {@link GarbageDay#GARBAGE}, {@link GarbageDay#RECYCLING} and {@link GarbageDay#BULK}
+     * @return new set of class indexes
+     */
+    BitSet getClasses(final int flags) {
+        final BitSet classes = new BitSet();
+        if ((flags & GarbageDay.GARBAGE) != 0) {
+            classes.or(garbage);
+        }
+        if ((flags & GarbageDay.RECYCLING) != 0) {
+            classes.or(recycling);
+        }
+        if ((flags & GarbageDay.BULK) != 0) {
+            classes.or(bulk);
+        }
+        return classes;
+    }
+
+    /**
+     * Adds up the customers with one kind of collection.
+     * @param flag one of {@link GarbageDay#GARBAGE}, {@link GarbageDay#RECYCLING} or {@link GarbageDay#BULK}
+     * @param customers number of customers in each class, by class index
+     * @return number of customers collected
+     */
+    long countCustomers(final int flag, final long[] customers) {
+        final BitSet classes = flag == GarbageDay.GARBAGE ? garbage : flag == GarbageDay.RECYCLING ? recycling : bulk;
+        long count = 0;
+        for (int index = classes.nextSetBit(0); index >= 0; index = classes.nextSetBit(index + 1)) {
+            count += customers[index];
+        }
+        return count;
+    }
+
+    /**
+     * Gets the collection of a schedule class as flags.
+     * @param index class index
+     * @return bitwise combination of {@link GarbageDay#GARBAGE}, {@link GarbageDay#RECYCLING} and {@link GarbageDay#BULK}
+     */
+    public int getFlags(final int index) {
+        return (garbage.get(index) ? GarbageDay.GARBAGE : 0) |
+                (recycling.get(index) ? GarbageDay.RECYCLING : 0) |
+                (bulk.get(index) ? GarbageDay.BULK : 0);
+    }
+
+    /**
+     * Gets the collection of a customer.
+     * This is the same as {@link Garbage#compute(LocalDate)} for the customer and date.
+     * @param user customer configuration
+     * @return garbage collection summary
+     */
+    public GarbageDay get(final UserGarbageConfiguration user) {
+        return new GarbageDay(date, getFlags(classes.indexOf(user)));
+    }
+}
@@ -0,0 +1,44 @@
+package com.spinthechoice.garbage;
+
+import java.time.LocalDate;
+
+/**
+ * Forecast number of stops of each kind on a single day.
+ */
+public final class DailyForecast {
+    private final LocalDate date;
+    private final long garbageStops;
+    private final long recyclingStops;
+    private final long bulkStops;
+
+    public DailyForecast(final LocalDate date, final long garbageStops, final long recyclingStops, final long bulkStops) {
+        this.date = date;
+        this.garbageStops = garbageStops;
+        this.recyclingStops = recyclingStops;
+        this.bulkStops = bulkStops;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getGarbageStops() {
+        return garbageStops;
+    }
+
+    public long getRecyclingStops() {
+        return recyclingStops;
+    }
+
+    public long getBulkStops() {
+        return bulkStops;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyForecast{date=" + date +
+                ", garbageStops=" + garbageStops +
+                ", recyclingStops=" + recyclingStops +
+                ", bulkStops=" + bulkStops + '}';
+    }
+}
@@ -0,0 +1,16 @@
+package com.spinthechoice.garbage;
+
+/**
+ * Receives a customer's garbage collection one day at a time without allocating per day.
+ * @see Garbage#forEachDay(java.time.LocalDate, java.time.LocalDate, DaySink)
+ */
+@FunctionalInterface
+public interface DaySink {
+    /**
+     * Accepts the garbage collection of a single day.
+     * @param epochDay day as a count of days since 1970-01-01 (see {@link java.time.LocalDate#toEpochDay()})
+     * @param flags bitwise combination of {@link GarbageDay#GARBAGE}, {@link GarbageDay#RECYCLING}
+     *              and {@link GarbageDay#BULK}
+     */
+    void accept(long epochDay, int flags);
+}
@@ -0,0 +1,96 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Date arithmetic on epoch days, the count of days since 1970-01-01.
+ */
+final class EpochDays {
+    // 1970-01-01 was a Thursday
+    private static final int EPOCH_DAY_OF_WEEK_OFFSET = 3;
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int YEARS_PER_ERA = 400;
+    private static final long DAYS_PER_ERA = 146097;
+    // days from 0000-03-01 to 1970-01-01
+    private static final long DAYS_FROM_ERA_TO_EPOCH = 719468;
+
+    private EpochDays() {
+    }
+
+    static DayOfWeek dayOfWeek(final long epochDay) {
+        return DayOfWeek.of(dayOfWeekValue(epochDay));
+    }
+
+    /**
+     * Gets the day of week of an epoch day as a number.
+     * @param epochDay day
+     * @return 1 for Monday through 7 for Sunday, as {@link DayOfWeek#getValue()}
+     */
+    static int dayOfWeekValue(final long epochDay) {
+        return (int) Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK_OFFSET, DAYS_PER_WEEK) + 1;
+    }
+
+    /**
+     * Converts a date to an epoch day without creating a {@link java.time.LocalDate}.
+     * The date is not validated.
+     * @param year proleptic year
+     * @param month 1 for January through 12 for December
+     * @param dayOfMonth day of month, starting at 1
+     * @return epoch day
+     */
+    static long of(final int year, final int month, final int dayOfMonth) {
+        // count from March so the leap day is last in the year; see "chrono-Compatible Low-Level Date Algorithms"
+        final long y = month <= 2 ? year - 1L : year;
+        final long era = Math.floorDiv(y, YEARS_PER_ERA);
+        final long yearOfEra = y - era * YEARS_PER_ERA;
+        final int monthFromMarch = month > 2 ? month - 3 : month + 9;
+        final long dayOfYear = (153L * monthFromMarch + 2) / 5 + dayOfMonth - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_FROM_ERA_TO_EPOCH;
+    }
+
+    /**
+     * Gets the year of an epoch day without creating a {@link java.time.LocalDate}.
+     * @param epochDay day
+     * @return proleptic year
+     */
+    static int year(final long epochDay) {
+        final long z = epochDay + DAYS_FROM_ERA_TO_EPOCH;
+        final long era = Math.floorDiv(z, DAYS_PER_ERA);
+        final long dayOfEra = z - era * DAYS_PER_ERA;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        // years count from March, so January and February belong to the next year
+        final long monthFromMarch = (5 * dayOfYear + 2) / 153;
+        return (int) (yearOfEra + era * YEARS_PER_ERA + (monthFromMarch >= 10 ? 1 : 0));
+    }
+
+    /**
+     * Gets the number of days in a month.
+     * @param year proleptic year
+     * @param month 1 for January through 12 for December
+     * @return number of days
+     */
+    static int lengthOfMonth(final int year, final int month) {
+        return Month.of(month).length(Year.isLeap(year));
+    }
+
+    /**
+     * Finds the nth occurrence of a day of week in a month.
+     * @param year proleptic year
+     * @param month 1 for January through 12 for December
+     * @param dayOfWeek 1 for Monday through 7 for Sunday
+     * @param index 0 for the first occurrence, 1 for the second, etc.; -1 for the last, -2 for the second to last, etc.
+     * @return epoch day, or {@link Long#MIN_VALUE} if the month has no such occurrence
+     */
+    static long nthDayOfWeek(final int year, final int month, final int dayOfWeek, final int index) {
+        final long firstOfMonth = of(year, month, 1);
+        final int firstMatch = Math.floorMod(dayOfWeek - dayOfWeekValue(firstOfMonth), DAYS_PER_WEEK);
+        final int matches = (lengthOfMonth(year, month) - 1 - firstMatch) / DAYS_PER_WEEK + 1;
+        final int fromStart = index < 0 ? index + matches : index;
+        return fromStart < 0 || fromStart >= matches ? Long.MIN_VALUE
+                : firstOfMonth + firstMatch + (long) fromStart * DAYS_PER_WEEK;
+    }
+}
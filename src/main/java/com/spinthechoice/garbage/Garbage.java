@@ -2,34 +2,29 @@ package com.spinthechoice.garbage;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
-
-import static java.time.temporal.ChronoUnit.DAYS;
-import static java.util.stream.Collectors.toSet;
-import static java.util.stream.IntStream.range;
+import java.util.stream.StreamSupport;
 
 /**
  * Main garbage class.
+ * Instances are immutable and may be shared between threads.
+ * Holidays and leap days are resolved once per year and shared by every instance with the same global configuration.
  */
 public class Garbage {
     private static final int DAYS_PER_WEEK = 7;
 
     private final GlobalGarbageConfiguration globalConfig;
     private final UserGarbageConfiguration userConfig;
-    private final LocalDate resetOnOrBeforeStart;
-    private final Set<LocalDate> holidays;
-    private int holidayYear;
-    private final Set<LocalDate> leapDays;
-    private int leapDayYear;
+    private final long resetOnOrBeforeStart;
+    private final long start;
 
     public Garbage(final GlobalGarbageConfiguration globalConfig, final UserGarbageConfiguration userConfig) {
         this.globalConfig = globalConfig;
         this.userConfig = userConfig;
-        this.resetOnOrBeforeStart = getResetDayEqualOrBeforeStart(globalConfig);
-        this.holidays = new HashSet<>();
-        this.leapDays = new HashSet<>();
+        this.resetOnOrBeforeStart = getResetDayEqualOrBeforeStart(globalConfig).toEpochDay();
+        this.start = globalConfig.getStart().toEpochDay();
     }
 
     private static LocalDate getResetDayEqualOrBeforeStart(final GlobalGarbageConfiguration config) {
@@ -46,75 +41,272 @@ public class Garbage {
      * @return garbage collection summary
      */
     public GarbageDay compute(final LocalDate date) {
-        final int plusDays = isLeapForward(date) ? 1 : 0;
-        final DayOfWeek userDayOfWeek = userConfig.getDayOfWeek().plus(plusDays);
-        final boolean dayOfWeekMatch = !isHoliday(date) && date.getDayOfWeek() == userDayOfWeek;
-        return new GarbageDay(date,
-                globalConfig.isGarbageEnabled() && dayOfWeekMatch && isUsersGarbageWeek(date),
-                globalConfig.isRecyclingEnabled() && dayOfWeekMatch && isUsersRecyclingWeek(date),
-                dayOfWeekMatch && isUsersBulkWeek(date));
+        return new GarbageDay(date, computeFlags(date.toEpochDay()));
     }
 
-    private boolean isHoliday(final LocalDate date) {
-        return getAllHolidaysInSameYear(date).contains(date);
+    /**
+     * Gets the customer's garbage collection for the specified day as flags.
+     * This is the same as {@link #compute(LocalDate)} but does not allocate a date or a summary.
+     * @param epochDay day to inspect as a count of days since 1970-01-01 (see {@link LocalDate#toEpochDay()})
+     * @return bitwise combination of {@link GarbageDay#GARBAGE}, {@link GarbageDay#RECYCLING} and {@link GarbageDay#BULK}
+     */
+    public int computeFlags(final long epochDay) {
+        final GarbageMetrics metrics = GarbageInstrumentation.getMetrics();
+        if (!metrics.isEnabled()) {
+            return computeFlagsUntimed(epochDay);
+        }
+
+        final long startNanos = System.nanoTime();
+        final int flags = computeFlagsUntimed(epochDay);
+        metrics.computed(System.nanoTime() - startNanos);
+        return flags;
     }
 
-    private Set<LocalDate> getAllHolidaysInSameYear(final LocalDate date) {
-        if (holidayYear != date.getYear()) {
-            holidays.clear();
-            holidays.addAll(new Holidays(globalConfig.getHolidays()).dates(date.getYear()));
-            holidays.addAll(new Holidays(globalConfig.getLeapDays()).dates(date.getYear()));
-            holidayYear = date.getYear();
+    private int computeFlagsUntimed(final long epochDay) {
+        final YearCalendar calendar = globalConfig.getCalendar().yearOf(epochDay);
+        if (!isDayOfWeekMatch(epochDay, calendar)) {
+            return 0;
         }
-        return holidays;
+        return getWeekFlags(epochDay) | (calendar.isBulkWeek(epochDay) ? GarbageDay.BULK : 0);
     }
 
-    private boolean isLeapForward(final LocalDate date) {
-        return getAllLeapDaysInSameYear(date).contains(date);
+    /**
+     * Gets summaries of the customer's garbage collection for a range of dates.
+     * The stream is lazy: each day is computed from the state of the previous day as the stream is consumed.
+     * It is sized and splits evenly, so it may be made {@link Stream#parallel() parallel}.
+     * Like {@link #forEachDay(LocalDate, LocalDate, DaySink)}, walking the range is reported to the installed metrics,
+     * once for each part of the stream that is consumed to its end.
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @return garbage collection summaries in date order
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public Stream<GarbageDay> computeRange(final LocalDate from, final LocalDate to) {
+        checkRange(from, to);
+        return StreamSupport.stream(new GarbageDaySpliterator(this, from.toEpochDay(), to.toEpochDay()), false);
     }
 
-    private Set<LocalDate> getAllLeapDaysInSameYear(final LocalDate date) {
-        if (leapDayYear != date.getYear()) {
-            leapDays.clear();
-            leapDays.addAll(new Holidays(globalConfig.getLeapDays()).dates(date.getYear()).stream()
-                    .flatMap(holiday -> daysUntilReset(holiday, globalConfig.getResetDay()))
-                    .collect(toSet()));
-            leapDayYear = date.getYear();
+    /**
+     * Walks the customer's garbage collection for a range of dates, passing each day to the sink.
+     * Nothing is allocated per day.
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @param sink receives each day in date order
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public void forEachDay(final LocalDate from, final LocalDate to, final DaySink sink) {
+        checkRange(from, to);
+        final GarbageMetrics metrics = GarbageInstrumentation.getMetrics();
+        final long startNanos = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final long end = to.toEpochDay();
+        final ScheduleCursor cursor = new ScheduleCursor(this, from.toEpochDay());
+        while (cursor.getEpochDay() < end) {
+            final long epochDay = cursor.getEpochDay();
+            sink.accept(epochDay, cursor.next());
+        }
+        if (metrics.isEnabled()) {
+            metrics.rangeComputed(end - from.toEpochDay(), System.nanoTime() - startNanos);
         }
-        return leapDays;
     }
 
-    private static Stream<LocalDate> daysUntilReset(final LocalDate holiday, final DayOfWeek reset) {
-        // in JDK 9, could do this ...
-        // return Stream.iterate(holiday, day -> day.getDayOfWeek() != reset, day -> day.plusDays(1)).skip(1);
-        final DateResetIterable iterable = new DateResetIterable(holiday, reset);
-        return iterable.stream().skip(1);
+    /**
+     * Walks the customer's garbage collection for a range of dates, updating the view for each day.
+     * Nothing is allocated per day; the view may be reused for further walks.
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @param view view to update
+     * @param action called with the view once per day, in date order
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public void forEachDay(final LocalDate from, final LocalDate to,
+                           final GarbageDayView view, final Consumer<? super GarbageDayView> action) {
+        forEachDay(from, to, (epochDay, flags) -> {
+            view.set(epochDay, flags);
+            action.accept(view);
+        });
     }
 
-    private boolean isUsersGarbageWeek(final LocalDate date) {
-        return isUsersWeek(date, globalConfig.getGarbageWeeks(), userConfig.getGarbageWeek());
+    static void checkRange(final LocalDate from, final LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date " + to + " is before start date " + from);
+        }
     }
 
-    private boolean isUsersRecyclingWeek(final LocalDate date) {
-        return isUsersWeek(date, globalConfig.getRecyclingWeeks(), userConfig.getRecyclingWeek());
+    /**
+     * Finds the customer's next garbage collection.
+     * @param from first date to consider
+     * @return the first garbage day on or after {@code from},
+     *         or empty if garbage is not collected within ten years
+     */
+    public Optional<LocalDate> nextGarbageDay(final LocalDate from) {
+        return toDate(new PickupSearch(Rotation.of(this, GarbageDay.GARBAGE)).next(from.toEpochDay()));
     }
 
-    private boolean isUsersWeek(final LocalDate date, final int weeks, final int usersWeek) {
-        return date.isBefore(globalConfig.getStart()) || weeks <= 1 ||
-                getWeekIndex(date, weeks) == usersWeek;
+    /**
+     * Finds the customer's next recycling collection.
+     * @param from first date to consider
+     * @return the first recycling day on or after {@code from},
+     *         or empty if recycling is not collected within ten years
+     */
+    public Optional<LocalDate> nextRecyclingDay(final LocalDate from) {
+        return toDate(new PickupSearch(Rotation.of(this, GarbageDay.RECYCLING)).next(from.toEpochDay()));
     }
 
-    private int getWeekIndex(final LocalDate date, final int weekCount) {
-        final long daysSinceStart = DAYS.between(resetOnOrBeforeStart, date.plusDays(1));
-        final double weeksSinceStart = daysSinceStart / (double) DAYS_PER_WEEK;
-        return (int) Math.floor(weeksSinceStart) % weekCount;
+    /**
+     * Finds the customer's next bulk garbage collection.
+     * @param from first date to consider
+     * @return the first bulk day on or after {@code from}, or empty if there are no more bulk days
+     */
+    public Optional<LocalDate> nextBulkDay(final LocalDate from) {
+        return toDate(new PickupSearch(Rotation.of(this, GarbageDay.BULK)).next(from.toEpochDay()));
     }
 
-    private boolean isUsersBulkWeek(final LocalDate date) {
-        final Set<LocalDate> bulkDays = globalConfig.getBulkDays();
-        return bulkDays != null && !bulkDays.isEmpty() &&
-                range(0, DAYS_PER_WEEK)
-                        .mapToObj(date::minusDays)
-                        .anyMatch(bulkDays::contains);
+    /**
+     * Finds the customer's previous garbage collection.
+     * @param from last date to consider
+     * @return the last garbage day on or before {@code from},
+     *         or empty if garbage was not collected within ten years
+     */
+    public Optional<LocalDate> previousGarbageDay(final LocalDate from) {
+        return toDate(new PickupSearch(Rotation.of(this, GarbageDay.GARBAGE)).previous(from.toEpochDay()));
+    }
+
+    /**
+     * Finds the customer's previous recycling collection.
+     * @param from last date to consider
+     * @return the last recycling day on or before {@code from},
+     *         or empty if recycling was not collected within ten years
+     */
+    public Optional<LocalDate> previousRecyclingDay(final LocalDate from) {
+        return toDate(new PickupSearch(Rotation.of(this, GarbageDay.RECYCLING)).previous(from.toEpochDay()));
+    }
+
+    /**
+     * Finds the customer's previous bulk garbage collection.
+     * @param from last date to consider
+     * @return the last bulk day on or before {@code from}, or empty if there were no earlier bulk days
+     */
+    public Optional<LocalDate> previousBulkDay(final LocalDate from) {
+        return toDate(new PickupSearch(Rotation.of(this, GarbageDay.BULK)).previous(from.toEpochDay()));
+    }
+
+    /**
+     * Counts the customer's garbage collections in a range of dates.
+     * The count is computed from the rotation and corrected for holidays and leap days, without visiting every day.
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @return number of garbage days
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public long countGarbageDays(final LocalDate from, final LocalDate to) {
+        checkRange(from, to);
+        return new PickupCounter(Rotation.of(this, GarbageDay.GARBAGE)).count(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Counts the customer's recycling collections in a range of dates.
+     * The count is computed from the rotation and corrected for holidays and leap days, without visiting every day.
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @return number of recycling days
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public long countRecyclingDays(final LocalDate from, final LocalDate to) {
+        checkRange(from, to);
+        return new PickupCounter(Rotation.of(this, GarbageDay.RECYCLING)).count(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Counts the customer's bulk garbage collections in a range of dates.
+     * Only the weeks following bulk days are visited.
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @return number of bulk days
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public long countBulkDays(final LocalDate from, final LocalDate to) {
+        checkRange(from, to);
+        return new PickupCounter(Rotation.of(this, GarbageDay.BULK)).count(from.toEpochDay(), to.toEpochDay());
+    }
+
+    private static Optional<LocalDate> toDate(final long epochDay) {
+        return epochDay == PickupSearch.NONE ? Optional.empty() : Optional.of(LocalDate.ofEpochDay(epochDay));
+    }
+
+    GlobalGarbageConfiguration getGlobalConfig() {
+        return globalConfig;
+    }
+
+    UserGarbageConfiguration getUserConfig() {
+        return userConfig;
+    }
+
+    long getStart() {
+        return start;
+    }
+
+    boolean isDayOfWeekMatch(final long epochDay, final YearCalendar calendar) {
+        final int plusDays = calendar.isLeapForward(epochDay) ? 1 : 0;
+        final DayOfWeek userDayOfWeek = userConfig.getDayOfWeek().plus(plusDays);
+        return !calendar.isHoliday(epochDay) && EpochDays.dayOfWeek(epochDay) == userDayOfWeek;
+    }
+
+    /**
+     * Gets the garbage and recycling flags for the week containing the given day,
+     * assuming the customer's day of week matches.
+     * @param epochDay day
+     * @return garbage and recycling flags
+     */
+    int getWeekFlags(final long epochDay) {
+        return (globalConfig.isGarbageEnabled() && isUsersGarbageWeek(epochDay) ? GarbageDay.GARBAGE : 0) |
+                (globalConfig.isRecyclingEnabled() && isUsersRecyclingWeek(epochDay) ? GarbageDay.RECYCLING : 0);
+    }
+
+    private boolean isUsersGarbageWeek(final long epochDay) {
+        return isUsersWeek(epochDay, globalConfig.getGarbageWeeks(), userConfig.getGarbageWeek());
+    }
+
+    private boolean isUsersRecyclingWeek(final long epochDay) {
+        return isUsersWeek(epochDay, globalConfig.getRecyclingWeeks(), userConfig.getRecyclingWeek());
+    }
+
+    private boolean isUsersWeek(final long epochDay, final int weeks, final int usersWeek) {
+        return epochDay < start || weeks <= 1 ||
+                getWeekIndex(epochDay, weeks) == usersWeek;
+    }
+
+    private int getWeekIndex(final long epochDay, final int weekCount) {
+        return (int) (getWeekNumber(epochDay) % weekCount);
+    }
+
+    /**
+     * Gets the number of the rotation week containing the given day.
+     * Rotation weeks start the day before the reset day, so each runs from the day before one reset day
+     * through two days before the next. Week 0 starts the day before the last reset day on or before the start date;
+     * a start date two days before a reset day therefore falls in week 1.
+     * @param epochDay day
+     * @return week number, negative for weeks before week 0
+     */
+    long getWeekNumber(final long epochDay) {
+        return Math.floorDiv(epochDay + 1 - resetOnOrBeforeStart, DAYS_PER_WEEK);
+    }
+
+    /**
+     * Gets the first day of a rotation week.
+     * @param weekNumber week number
+     * @return first day of the week
+     */
+    long getWeekStart(final long weekNumber) {
+        return resetOnOrBeforeStart - 1 + weekNumber * DAYS_PER_WEEK;
+    }
+
+    /**
+     * Gets the first day after the given day on which the user's garbage or recycling week may change.
+     * @param epochDay day
+     * @return first day of the next week, or the start date if that comes first
+     */
+    long getNextWeekChange(final long epochDay) {
+        final long nextWeek = getWeekStart(getWeekNumber(epochDay) + 1);
+        return epochDay < start ? Math.min(start, nextWeek) : nextWeek;
     }
 }
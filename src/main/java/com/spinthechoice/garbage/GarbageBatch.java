@@ -0,0 +1,202 @@
+package com.spinthechoice.garbage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Computes garbage collection for many customers of one municipality at once.
+ * Customers are grouped into schedule classes by day of week, garbage week and recycling week; each class is computed
+ * once per call and its result is shared by every customer in the class.
+ * Results are computed as customers are reached, so streams are only traversed once and may be parallel.
+ */
+public final class GarbageBatch {
+    private final GlobalGarbageConfiguration config;
+    private final ScheduleClasses classes;
+    private final boolean parallel;
+
+    /**
+     * Creates a batch that processes collections sequentially.
+     * @param config municipality configuration
+     */
+    public GarbageBatch(final GlobalGarbageConfiguration config) {
+        this(config, false);
+    }
+
+    /**
+     * Creates a batch.
+     * @param config municipality configuration
+     * @param parallel whether collections of customers are processed in parallel in the common fork-join pool
+     */
+    public GarbageBatch(final GlobalGarbageConfiguration config, final boolean parallel) {
+        this.config = config;
+        this.classes = new ScheduleClasses(config);
+        this.parallel = parallel;
+    }
+
+    /**
+     * Gets the number of schedule classes of the municipality.
+     * @return number of classes
+     */
+    public int getScheduleClassCount() {
+        return classes.size();
+    }
+
+    /**
+     * Gets the schedule class of a customer.
+     * @param user customer configuration
+     * @return class index, from 0 inclusive to {@link #getScheduleClassCount()} exclusive
+     */
+    public int indexOf(final UserGarbageConfiguration user) {
+        return classes.indexOf(user);
+    }
+
+    /**
+     * Gets a customer configuration representing a schedule class.
+     * @param index class index
+     * @return configuration with the schedule of the class
+     * @throws IndexOutOfBoundsException if there is no such class
+     */
+    public UserGarbageConfiguration getScheduleClass(final int index) {
+        if (index < 0 || index >= classes.size()) {
+            throw new IndexOutOfBoundsException("No schedule class " + index + " of " + classes.size());
+        }
+        return classes.get(index);
+    }
+
+    /**
+     * Finds every schedule class collected on the specified date, in one pass over the calendar.
+     * @param date date to inspect
+     * @return classes collected on the date
+     */
+    public DailyCollections collections(final LocalDate date) {
+        return classes.collections(date.toEpochDay());
+    }
+
+    /**
+     * Forecasts the number of stops of each kind on each day of a range.
+     * Customers are only counted per schedule class, so the cost does not depend on the size of the population.
+     * @param histogram number of customers with each configuration
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @return forecast for each date, in date order
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public List<DailyForecast> forecast(final Map<UserGarbageConfiguration, Long> histogram,
+                                        final LocalDate from, final LocalDate to) {
+        Garbage.checkRange(from, to);
+        final long[] customers = new long[classes.size()];
+        histogram.forEach((user, count) -> customers[classes.indexOf(user)] += count);
+
+        final List<DailyForecast> forecast = new ArrayList<>();
+        for (long epochDay = from.toEpochDay(); epochDay < to.toEpochDay(); ++epochDay) {
+            final DailyCollections collections = classes.collections(epochDay);
+            forecast.add(new DailyForecast(collections.getDate(),
+                    collections.countCustomers(GarbageDay.GARBAGE, customers),
+                    collections.countCustomers(GarbageDay.RECYCLING, customers),
+                    collections.countCustomers(GarbageDay.BULK, customers)));
+        }
+        return forecast;
+    }
+
+    /**
+     * Gets the garbage collection of each customer for the specified date.
+     * @param date date to inspect
+     * @param users customers
+     * @return summaries in the order of the customers; customers in the same schedule class share a summary
+     */
+    public Stream<GarbageDay> compute(final LocalDate date, final Stream<UserGarbageConfiguration> users) {
+        return users.map(perClass(garbage -> garbage.compute(date)));
+    }
+
+    /**
+     * Gets the garbage collection of each customer for the specified date.
+     * @param date date to inspect
+     * @param users customers
+     * @return summaries in the order of the customers; customers in the same schedule class share a summary
+     */
+    public List<GarbageDay> compute(final LocalDate date, final Collection<UserGarbageConfiguration> users) {
+        return compute(date, stream(users)).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the garbage collection of each customer for the specified date.
+     * @param date date to inspect
+     * @param users customers by key
+     * @param <K> customer key
+     * @return summaries by customer key; customers in the same schedule class share a summary
+     */
+    public <K> Map<K, GarbageDay> compute(final LocalDate date, final Map<K, UserGarbageConfiguration> users) {
+        return fanOut(users, perClass(garbage -> garbage.compute(date)));
+    }
+
+    /**
+     * Gets the garbage collection of each customer for a range of dates.
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @param users customers
+     * @return unmodifiable summaries in date order, in the order of the customers;
+     *         customers in the same schedule class share a list
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public Stream<List<GarbageDay>> computeRange(final LocalDate from, final LocalDate to,
+                                                 final Stream<UserGarbageConfiguration> users) {
+        Garbage.checkRange(from, to);
+        return users.map(perClass(garbage -> range(garbage, from, to)));
+    }
+
+    /**
+     * Gets the garbage collection of each customer for a range of dates.
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @param users customers by key
+     * @param <K> customer key
+     * @return unmodifiable summaries in date order by customer key; customers in the same schedule class share a list
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public <K> Map<K, List<GarbageDay>> computeRange(final LocalDate from, final LocalDate to,
+                                                     final Map<K, UserGarbageConfiguration> users) {
+        Garbage.checkRange(from, to);
+        return fanOut(users, perClass(garbage -> range(garbage, from, to)));
+    }
+
+    private static List<GarbageDay> range(final Garbage garbage, final LocalDate from, final LocalDate to) {
+        return Collections.unmodifiableList(garbage.computeRange(from, to).collect(Collectors.toList()));
+    }
+
+    private <T> Stream<T> stream(final Collection<T> values) {
+        return parallel ? values.parallelStream() : values.stream();
+    }
+
+    private <K, R> Map<K, R> fanOut(final Map<K, UserGarbageConfiguration> users,
+                                    final Function<UserGarbageConfiguration, R> compute) {
+        final Stream<Map.Entry<K, UserGarbageConfiguration>> entries = stream(users.entrySet());
+        return parallel
+                ? entries.collect(Collectors.toConcurrentMap(Map.Entry::getKey, entry -> compute.apply(entry.getValue())))
+                : entries.collect(Collectors.toMap(Map.Entry::getKey, entry -> compute.apply(entry.getValue())));
+    }
+
+    /**
+     * Wraps a computation so that it runs at most once per schedule class, in practice.
+     * Two threads reaching a new class at the same moment may both compute it; the first result is kept.
+     */
+    private <R> Function<UserGarbageConfiguration, R> perClass(final Function<Garbage, R> compute) {
+        final AtomicReferenceArray<R> results = new AtomicReferenceArray<>(classes.size());
+        return user -> {
+            final int index = classes.indexOf(user);
+            final R result = results.get(index);
+            if (result != null) {
+                return result;
+            }
+            final R computed = compute.apply(new Garbage(config, classes.get(index)));
+            return results.compareAndSet(index, null, computed) ? computed : results.get(index);
+        };
+    }
+}
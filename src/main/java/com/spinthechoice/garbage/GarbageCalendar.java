@@ -0,0 +1,200 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Resolved holidays, leap days and bulk days of a municipality, shared by all of its customers.
+ * Each year is resolved once on first use and never changes afterwards, so lookups do not lock.
+ * The calendar holds no per-caller state; callers walking many days keep their own {@link CalendarWindow}.
+ */
+final class GarbageCalendar {
+    // years in this range are also kept in an array, so looking them up does not box the year
+    private static final int FIRST_INDEXED_YEAR = 1900;
+    private static final int INDEXED_YEARS = 256;
+    // scheduled bulk days are searched for at most this far from the requested day
+    private static final int MAX_BULK_SEARCH_YEARS = 100;
+
+    private final DayOfWeek resetDay;
+    private final HolidayRules holidays;
+    private final HolidayRules leapDays;
+    private final ConcurrentMap<Integer, YearCalendar> years;
+    private final AtomicReferenceArray<YearCalendar> indexed;
+    private final BulkDays bulkDays;
+
+    GarbageCalendar(final GlobalGarbageConfiguration config) {
+        this.resetDay = config.getResetDay();
+        this.holidays = HolidayRules.compile(config.getHolidays());
+        this.leapDays = HolidayRules.compile(config.getLeapDays());
+        this.years = new ConcurrentHashMap<>();
+        this.indexed = new AtomicReferenceArray<>(INDEXED_YEARS);
+        this.bulkDays = new BulkDays(config.getBulkDays(), config.getBulkSchedules());
+    }
+
+    /**
+     * Gets the calendar for the given year, resolving it if necessary.
+     * @param year year
+     * @return calendar for the year
+     */
+    YearCalendar year(final int year) {
+        final int index = year - FIRST_INDEXED_YEAR;
+        if (index < 0 || index >= INDEXED_YEARS) {
+            return resolve(year);
+        }
+
+        final YearCalendar calendar = indexed.get(index);
+        if (calendar != null) {
+            final GarbageMetrics metrics = GarbageInstrumentation.getMetrics();
+            if (metrics.isEnabled()) {
+                metrics.yearCacheHit(year);
+            }
+            return calendar;
+        }
+        final YearCalendar resolved = resolve(year);
+        indexed.set(index, resolved);
+        return resolved;
+    }
+
+    /**
+     * Gets the calendar for the day's year, resolving it if necessary.
+     * @param epochDay day
+     * @return calendar for the year containing the day
+     */
+    YearCalendar yearOf(final long epochDay) {
+        return year(EpochDays.year(epochDay));
+    }
+
+    private YearCalendar resolve(final int year) {
+        final GarbageMetrics metrics = GarbageInstrumentation.getMetrics();
+        // try a plain read first: computeIfAbsent may lock even when the year is present
+        final YearCalendar calendar = years.get(year);
+        if (calendar != null) {
+            if (metrics.isEnabled()) {
+                metrics.yearCacheHit(year);
+            }
+            return calendar;
+        } else if (!metrics.isEnabled()) {
+            return years.computeIfAbsent(year, y -> YearCalendar.of(holidays, leapDays, resetDay, bulkDays, y));
+        }
+
+        metrics.yearCacheMiss(year);
+        return years.computeIfAbsent(year, y -> {
+            final long startNanos = System.nanoTime();
+            final YearCalendar resolved = YearCalendar.of(holidays, leapDays, resetDay, bulkDays, y);
+            metrics.yearResolved(y, System.nanoTime() - startNanos);
+            return resolved;
+        });
+    }
+
+    /**
+     * Adds a calendar resolved earlier, unless its year was already resolved.
+     * @param calendar calendar for a year
+     */
+    void preload(final YearCalendar calendar) {
+        years.putIfAbsent(calendar.getYear(), calendar);
+    }
+
+    /**
+     * Gets a window of years containing the given day.
+     * The caller's current window is returned if it already contains the day; otherwise it slides forward a year
+     * when the day is in the year after it, and is re-centered on the day's year otherwise.
+     * @param epochDay day to look up
+     * @param current the caller's current window, or {@code null}
+     * @return window containing the day
+     */
+    CalendarWindow window(final long epochDay, final CalendarWindow current) {
+        if (current != null && current.contains(epochDay)) {
+            return current;
+        }
+
+        final int year = EpochDays.year(epochDay);
+        if (current != null && current.getNext().getYear() + 1 == year) {
+            // evict the oldest year
+            return new CalendarWindow(current.getCurrent(), current.getNext(), year(year));
+        }
+        return new CalendarWindow(year(year - 1), year(year), year(year + 1));
+    }
+
+    /**
+     * Gets the first day in a range on which collection is canceled or postponed.
+     * Collection on every other day follows the usual rotation.
+     * @param from first day of the range, inclusive
+     * @param to last day of the range, exclusive
+     * @return the first such day, or {@code to} if there is none
+     */
+    long nextIrregularDay(final long from, final long to) {
+        long day = from;
+        while (day < to) {
+            final YearCalendar calendar = yearOf(day);
+            final long irregular = calendar.nextIrregularDay(day);
+            if (irregular != Long.MAX_VALUE) {
+                return Math.min(irregular, to);
+            }
+            day = calendar.getLastEpochDay() + 1;
+        }
+        return to;
+    }
+
+    /**
+     * Gets the first bulk day on or after the given day.
+     * Scheduled bulk days are read from the resolved years, searching at most a hundred years ahead.
+     * @param epochDay day
+     * @return bulk day, or {@link Long#MAX_VALUE} if there is none
+     */
+    long nextBulkDay(final long epochDay) {
+        probeBulkDay();
+        final long nextExplicit = bulkDays.nextExplicit(epochDay);
+        if (!bulkDays.isScheduled()) {
+            return nextExplicit;
+        }
+
+        final int year = EpochDays.year(epochDay);
+        for (int y = Math.max(year, bulkDays.getFirstScheduledYear()); y <= year + MAX_BULK_SEARCH_YEARS; ++y) {
+            final YearCalendar calendar = year(y);
+            if (nextExplicit < calendar.getFirstEpochDay()) {
+                return nextExplicit;
+            }
+            final long next = calendar.nextBulkDay(epochDay);
+            if (next != Long.MAX_VALUE) {
+                return next;
+            }
+        }
+        return nextExplicit;
+    }
+
+    /**
+     * Gets the last bulk day on or before the given day.
+     * Scheduled bulk days are read from the resolved years, searching at most a hundred years back.
+     * @param epochDay day
+     * @return bulk day, or {@link Long#MIN_VALUE} if there is none
+     */
+    long previousBulkDay(final long epochDay) {
+        probeBulkDay();
+        final long previousExplicit = bulkDays.previousExplicit(epochDay);
+        if (!bulkDays.isScheduled()) {
+            return previousExplicit;
+        }
+
+        final int year = EpochDays.year(epochDay);
+        for (int y = year; y >= Math.max(year - MAX_BULK_SEARCH_YEARS, bulkDays.getFirstScheduledYear()); --y) {
+            final YearCalendar calendar = year(y);
+            if (previousExplicit > calendar.getLastEpochDay()) {
+                return previousExplicit;
+            }
+            final long previous = calendar.previousBulkDay(epochDay);
+            if (previous != Long.MIN_VALUE) {
+                return previous;
+            }
+        }
+        return previousExplicit;
+    }
+
+    private static void probeBulkDay() {
+        final GarbageMetrics metrics = GarbageInstrumentation.getMetrics();
+        if (metrics.isEnabled()) {
+            metrics.bulkDayProbed();
+        }
+    }
+}
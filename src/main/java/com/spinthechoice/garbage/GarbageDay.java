@@ -6,6 +6,13 @@ import java.time.LocalDate;
  * Summary of a single day of garbage collection.
  */
 public final class GarbageDay {
+    /** Flag set when garbage will be collected. */
+    public static final int GARBAGE = 1;
+    /** Flag set when recycling will be collected. */
+    public static final int RECYCLING = 1 << 1;
+    /** Flag set when bulk garbage will be collected. */
+    public static final int BULK = 1 << 2;
+
     private final LocalDate date;
     private final boolean garbageDay;
     private final boolean recyclingDay;
@@ -18,6 +25,15 @@ public final class GarbageDay {
         this.bulkDay = bulkDay;
     }
 
+    /**
+     * Creates a summary from collection flags.
+     * @param date the day in question
+     * @param flags bitwise combination of {@link #GARBAGE}, {@link #RECYCLING} and {@link #BULK}
+     */
+    public GarbageDay(final LocalDate date, final int flags) {
+        this(date, (flags & GARBAGE) != 0, (flags & RECYCLING) != 0, (flags & BULK) != 0);
+    }
+
     /**
      * Returns the day in question.
      * @return the day in question
@@ -49,4 +65,12 @@ public final class GarbageDay {
     public boolean isRecyclingDay() {
         return recyclingDay;
     }
+
+    /**
+     * Returns this summary as collection flags.
+     * @return bitwise combination of {@link #GARBAGE}, {@link #RECYCLING} and {@link #BULK}
+     */
+    public int getFlags() {
+        return (garbageDay ? GARBAGE : 0) | (recyclingDay ? RECYCLING : 0) | (bulkDay ? BULK : 0);
+    }
 }
@@ -0,0 +1,94 @@
+package com.spinthechoice.garbage;
+
+import java.time.LocalDate;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of epoch days of a customer's schedule.
+ * Ranges split in half, so parallel streams divide the work evenly;
+ * each part walks its days with its own {@link ScheduleCursor}, created when traversal starts.
+ * Each part reports its days to {@link GarbageMetrics#rangeComputed(long, long)} once it is walked to its end.
+ */
+class GarbageDaySpliterator implements Spliterator<GarbageDay> {
+    private static final int MIN_SPLIT_DAYS = 64;
+
+    private final Garbage garbage;
+    private long from;
+    private final long to;
+    private ScheduleCursor cursor;
+    // days walked one at a time so far, reported together once this part is exhausted
+    private long walkedDays;
+    private long walkedNanos;
+
+    GarbageDaySpliterator(final Garbage garbage, final long from, final long to) {
+        this.garbage = garbage;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super GarbageDay> action) {
+        if (from >= to) {
+            return false;
+        }
+
+        final GarbageMetrics metrics = GarbageInstrumentation.getMetrics();
+        final long startNanos = metrics.isEnabled() ? System.nanoTime() : 0L;
+        action.accept(new GarbageDay(LocalDate.ofEpochDay(from), cursor().next()));
+        ++from;
+        if (metrics.isEnabled()) {
+            ++walkedDays;
+            walkedNanos += System.nanoTime() - startNanos;
+            if (from == to) {
+                metrics.rangeComputed(walkedDays, walkedNanos);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super GarbageDay> action) {
+        final GarbageMetrics metrics = GarbageInstrumentation.getMetrics();
+        final long startNanos = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final long first = from;
+        final ScheduleCursor cursor = cursor();
+        for (; from < to; ++from) {
+            action.accept(new GarbageDay(LocalDate.ofEpochDay(from), cursor.next()));
+        }
+        if (metrics.isEnabled() && first < to) {
+            metrics.rangeComputed(walkedDays + to - first, walkedNanos + System.nanoTime() - startNanos);
+        }
+    }
+
+    private ScheduleCursor cursor() {
+        if (cursor == null) {
+            cursor = new ScheduleCursor(garbage, from);
+        }
+        return cursor;
+    }
+
+    @Override
+    public Spliterator<GarbageDay> trySplit() {
+        final long size = to - from;
+        if (size < MIN_SPLIT_DAYS) {
+            return null;
+        }
+
+        final long middle = from + size / 2;
+        final Spliterator<GarbageDay> prefix = new GarbageDaySpliterator(garbage, from, middle);
+        from = middle;
+        cursor = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+    }
+}
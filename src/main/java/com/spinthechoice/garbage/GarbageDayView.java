@@ -0,0 +1,75 @@
+package com.spinthechoice.garbage;
+
+import java.time.LocalDate;
+
+/**
+ * Reusable, mutable summary of a single day of garbage collection.
+ * Range walks update the same view for every day, so it must not be retained after the callback returns;
+ * use {@link #toGarbageDay()} to keep a copy.
+ * @see Garbage#forEachDay(LocalDate, LocalDate, GarbageDayView, java.util.function.Consumer)
+ */
+public final class GarbageDayView {
+    private long epochDay;
+    private int flags;
+
+    void set(final long epochDay, final int flags) {
+        this.epochDay = epochDay;
+        this.flags = flags;
+    }
+
+    /**
+     * Returns the day in question as a count of days since 1970-01-01.
+     * @return the day in question
+     */
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    /**
+     * Returns the day in question. This allocates a new date.
+     * @return the day in question
+     */
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Returns the collection flags of the day.
+     * @return bitwise combination of {@link GarbageDay#GARBAGE}, {@link GarbageDay#RECYCLING} and {@link GarbageDay#BULK}
+     */
+    public int getFlags() {
+        return flags;
+    }
+
+    /**
+     * Returns whether garbage will be collected this day for the customer.
+     * @return {@code true} if garbage will be collected; {@code false} otherwise
+     */
+    public boolean isGarbageDay() {
+        return (flags & GarbageDay.GARBAGE) != 0;
+    }
+
+    /**
+     * Returns whether bulk garbage will be collected this day for the customer.
+     * @return {@code true} if bulk garbage will be collected; {@code false} otherwise
+     */
+    public boolean isBulkDay() {
+        return (flags & GarbageDay.BULK) != 0;
+    }
+
+    /**
+     * Returns whether recycling will be collected this day for the customer.
+     * @return {@code true} if recycling will be collected; {@code false} otherwise
+     */
+    public boolean isRecyclingDay() {
+        return (flags & GarbageDay.RECYCLING) != 0;
+    }
+
+    /**
+     * Copies this view into an immutable summary.
+     * @return garbage collection summary
+     */
+    public GarbageDay toGarbageDay() {
+        return new GarbageDay(getDate(), flags);
+    }
+}
@@ -0,0 +1,38 @@
+package com.spinthechoice.garbage;
+
+/**
+ * Holds the metrics the library reports to.
+ * Nothing is recorded until metrics are installed.
+ */
+public final class GarbageInstrumentation {
+    private static volatile GarbageMetrics metrics = GarbageMetrics.NONE;
+
+    private GarbageInstrumentation() {
+    }
+
+    /**
+     * Installs metrics, replacing any installed before.
+     * @param metrics metrics to report to
+     */
+    public static void install(final GarbageMetrics metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics are required");
+        }
+        GarbageInstrumentation.metrics = metrics;
+    }
+
+    /**
+     * Stops reporting metrics.
+     */
+    public static void uninstall() {
+        metrics = GarbageMetrics.NONE;
+    }
+
+    /**
+     * Gets the installed metrics.
+     * @return installed metrics, or {@link GarbageMetrics#NONE}
+     */
+    public static GarbageMetrics getMetrics() {
+        return metrics;
+    }
+}
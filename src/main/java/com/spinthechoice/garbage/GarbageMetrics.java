@@ -0,0 +1,89 @@
+package com.spinthechoice.garbage;
+
+/**
+ * Receives counters and timings from the library.
+ * Every method does nothing by default, so implementations only override what they record.
+ * Methods are called on the threads doing the work and must be thread-safe and quick.
+ * Timings are in nanoseconds.
+ * @see GarbageInstrumentation#install(GarbageMetrics)
+ */
+public interface GarbageMetrics {
+    /** Metrics that record nothing; the library skips timing entirely while these are installed. */
+    GarbageMetrics NONE = new GarbageMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * Returns whether anything is recorded.
+     * When {@code false}, the library does not read the clock or call any other method.
+     * @return {@code true} if metrics are recorded
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Called after a customer's collection is computed for a single day.
+     * @param nanos time taken
+     * @see Garbage#computeFlags(long)
+     */
+    default void computed(final long nanos) {
+    }
+
+    /**
+     * Called after a customer's collection is walked for a range of days.
+     * @param days number of days
+     * @param nanos time taken, including the time spent by the sink
+     * @see Garbage#forEachDay(java.time.LocalDate, java.time.LocalDate, DaySink)
+     */
+    default void rangeComputed(final long days, final long nanos) {
+    }
+
+    /**
+     * Called when a municipality's resolved year is found in its cache.
+     * @param year year
+     */
+    default void yearCacheHit(final int year) {
+    }
+
+    /**
+     * Called when a municipality's year is not in its cache and must be resolved.
+     * @param year year
+     */
+    default void yearCacheMiss(final int year) {
+    }
+
+    /**
+     * Called after a municipality's holidays, leap days and bulk weeks are resolved for a year.
+     * @param year year
+     * @param nanos time taken
+     */
+    default void yearResolved(final int year, final long nanos) {
+    }
+
+    /**
+     * Called after holidays are resolved for a range of years.
+     * @param years number of years
+     * @param nanos time taken
+     * @see HolidayRules#epochDays(int, int)
+     */
+    default void holidaysResolved(final int years, final long nanos) {
+    }
+
+    /**
+     * Called after holidays of one type are resolved for a range of years.
+     * @param type holiday type
+     * @param resolutions number of dates computed, including those for neighboring years that offsets may move
+     */
+    default void holidaysResolved(final HolidayType type, final int resolutions) {
+    }
+
+    /**
+     * Called when the next or previous bulk day is searched for.
+     */
+    default void bulkDayProbed() {
+    }
+}
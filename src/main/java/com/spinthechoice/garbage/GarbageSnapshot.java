@@ -0,0 +1,305 @@
+package com.spinthechoice.garbage;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compact binary encoding of municipality configurations together with their resolved calendars.
+ * Configurations read from a snapshot answer questions about the years it covers without resolving any holidays.
+ *
+ * <p>A snapshot is a header followed by each configuration: its settings, holidays, leap days, bulk days and
+ * bulk schedules, then the range of years it covers and the day-of-year bits of each of those years:
+ * holidays, postponed days, bulk weeks and bulk days.</p>
+ */
+public final class GarbageSnapshot {
+    private static final int MAGIC = 0x47524247;
+    private static final short VERSION = 2;
+    private static final int WORDS_PER_YEAR = 6;
+    private static final int NONE = -1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private GarbageSnapshot() {
+    }
+
+    /**
+     * Writes configurations and their calendars.
+     * The channel is not closed.
+     * @param configs configurations
+     * @param fromYear first year to resolve, inclusive
+     * @param toYear last year to resolve, exclusive
+     * @param channel channel to write to
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if {@code toYear} is before {@code fromYear}
+     */
+    public static void write(final Collection<GlobalGarbageConfiguration> configs, final int fromYear,
+                             final int toYear, final WritableByteChannel channel) throws IOException {
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException("End year is before start year");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(configs.size());
+        for (final GlobalGarbageConfiguration config : configs) {
+            buffer = writeConfig(buffer, config);
+            buffer = ensure(buffer, 2 * Integer.BYTES + (toYear - fromYear) * 4 * WORDS_PER_YEAR * Long.BYTES);
+            buffer.putInt(fromYear).putInt(toYear - fromYear);
+            for (int year = fromYear; year < toYear; ++year) {
+                final YearCalendar calendar = config.getCalendar().year(year);
+                putBits(buffer, calendar.getHolidays());
+                putBits(buffer, calendar.getLeapForward());
+                putBits(buffer, calendar.getBulkWeeks());
+                putBits(buffer, calendar.getBulkDays());
+            }
+
+            // flush between configurations to keep the buffer small
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads configurations and their calendars from a snapshot file.
+     * The file is mapped into memory rather than read through the heap.
+     * @param path snapshot file
+     * @return configurations, in the order they were written
+     * @throws IOException if reading fails or the file is not a snapshot this version can read
+     */
+    public static List<GlobalGarbageConfiguration> read(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Reads configurations and their calendars.
+     * @param buffer snapshot, positioned at its start
+     * @return configurations, in the order they were written
+     * @throws IOException if the buffer is not a snapshot this version can read
+     */
+    public static List<GlobalGarbageConfiguration> read(final ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a garbage snapshot");
+            }
+            final short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+
+            final int count = buffer.getInt();
+            final List<GlobalGarbageConfiguration> configs = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                final GlobalGarbageConfiguration config = readConfig(buffer);
+                final int fromYear = buffer.getInt();
+                final int years = buffer.getInt();
+                for (int year = fromYear; year < fromYear + years; ++year) {
+                    final BitSet holidays = getBits(buffer);
+                    final BitSet leapForward = getBits(buffer);
+                    final BitSet bulkWeeks = getBits(buffer);
+                    final BitSet bulkDays = getBits(buffer);
+                    config.getCalendar().preload(YearCalendar.of(year, holidays, leapForward, bulkWeeks, bulkDays));
+                }
+                configs.add(config);
+            }
+            return configs;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                | DateTimeException | IllegalArgumentException | IllegalStateException e) {
+            // corrupt counts and settings surface as whichever exception the decoded value first trips
+            throw new IOException("Malformed garbage snapshot", e);
+        }
+    }
+
+    private static ByteBuffer writeConfig(final ByteBuffer buffer, final GlobalGarbageConfiguration config) {
+        final ByteBuffer settings = ensure(buffer, 2 * Byte.BYTES + Long.BYTES + 2 * Integer.BYTES);
+        settings.put(code(config.getResetDay()))
+                .putLong(config.getStart() == null ? NO_DATE : config.getStart().toEpochDay())
+                .put((byte) ((config.isGarbageEnabled() ? 1 : 0) | (config.isRecyclingEnabled() ? 2 : 0)))
+                .putInt(config.getGarbageWeeks())
+                .putInt(config.getRecyclingWeeks());
+        ByteBuffer out = writeHolidays(settings, config.getHolidays());
+        out = writeHolidays(out, config.getLeapDays());
+        out = writeDates(out, config.getBulkDays());
+        return writeBulkSchedules(out, config.getBulkSchedules());
+    }
+
+    private static GlobalGarbageConfiguration readConfig(final ByteBuffer buffer) {
+        final GlobalGarbageConfiguration.Builder builder = GlobalGarbageConfiguration.builder()
+                .setResetDay(dayOfWeek(buffer.get()))
+                .setStart(date(buffer.getLong()));
+        final byte enabled = buffer.get();
+        return builder.setGarbageEnabled((enabled & 1) != 0)
+                .setRecyclingEnabled((enabled & 2) != 0)
+                .setGarbageWeeks(buffer.getInt())
+                .setRecyclingWeeks(buffer.getInt())
+                .setHolidays(readHolidays(buffer))
+                .setLeapDays(readHolidays(buffer))
+                .setBulkDays(readDates(buffer))
+                .setBulkSchedules(readBulkSchedules(buffer))
+                .build();
+    }
+
+    private static ByteBuffer writeHolidays(final ByteBuffer buffer, final Set<Holiday> holidays) {
+        final int count = holidays == null ? NONE : holidays.size();
+        final ByteBuffer out = ensure(buffer, Integer.BYTES + Math.max(count, 0) * 6 * Byte.BYTES);
+        out.putInt(count);
+        if (holidays != null) {
+            for (final Holiday holiday : holidays) {
+                out.put(code(holiday.getType()))
+                        .put(holiday.getMonth() == null ? 0 : (byte) holiday.getMonth().getValue())
+                        .put((byte) holiday.getDate())
+                        .put(code(holiday.getDayOfWeek()))
+                        .put((byte) holiday.getWeekIndex())
+                        .put(code(holiday.getOffset()));
+            }
+        }
+        return out;
+    }
+
+    private static Set<Holiday> readHolidays(final ByteBuffer buffer) {
+        final int count = buffer.getInt();
+        if (count == NONE) {
+            return null;
+        }
+
+        final Set<Holiday> holidays = new HashSet<>();
+        for (int i = 0; i < count; ++i) {
+            final byte type = buffer.get();
+            final byte month = buffer.get();
+            holidays.add(Holiday.builder()
+                    .setType(type == NONE ? null : HolidayType.values()[type])
+                    .setMonth(month == 0 ? null : Month.of(month))
+                    .setDate(buffer.get())
+                    .setDayOfWeek(dayOfWeek(buffer.get()))
+                    .setWeekIndex(buffer.get())
+                    .setOffset(HolidayOffset.values()[buffer.get()])
+                    .build());
+        }
+        return holidays;
+    }
+
+    private static ByteBuffer writeDates(final ByteBuffer buffer, final Set<LocalDate> dates) {
+        final int count = dates == null ? NONE : dates.size();
+        final ByteBuffer out = ensure(buffer, Integer.BYTES + Math.max(count, 0) * Long.BYTES);
+        out.putInt(count);
+        if (dates != null) {
+            dates.stream().mapToLong(LocalDate::toEpochDay).sorted().forEach(out::putLong);
+        }
+        return out;
+    }
+
+    private static Set<LocalDate> readDates(final ByteBuffer buffer) {
+        final int count = buffer.getInt();
+        if (count == NONE) {
+            return null;
+        }
+
+        final Set<LocalDate> dates = new HashSet<>();
+        for (int i = 0; i < count; ++i) {
+            dates.add(LocalDate.ofEpochDay(buffer.getLong()));
+        }
+        return dates;
+    }
+
+    private static ByteBuffer writeBulkSchedules(final ByteBuffer buffer, final Set<BulkSchedule> schedules) {
+        final int count = schedules == null ? NONE : schedules.size();
+        ByteBuffer out = ensure(buffer, Integer.BYTES);
+        out.putInt(count);
+        if (schedules != null) {
+            for (final BulkSchedule schedule : schedules) {
+                out = ensure(out, 3 * Byte.BYTES + Long.BYTES + Integer.BYTES);
+                out.put(code(schedule.getType()))
+                        .put(code(schedule.getDayOfWeek()))
+                        .put((byte) schedule.getWeekIndex())
+                        .putLong(schedule.getStart() == null ? NO_DATE : schedule.getStart().toEpochDay())
+                        .putInt(schedule.getWeeks());
+                out = writeDates(out, schedule.getExclusions());
+            }
+        }
+        return out;
+    }
+
+    private static Set<BulkSchedule> readBulkSchedules(final ByteBuffer buffer) {
+        final int count = buffer.getInt();
+        if (count == NONE) {
+            return null;
+        }
+
+        final Set<BulkSchedule> schedules = new HashSet<>();
+        for (int i = 0; i < count; ++i) {
+            schedules.add(BulkSchedule.builder()
+                    .setType(BulkScheduleType.values()[buffer.get()])
+                    .setDayOfWeek(dayOfWeek(buffer.get()))
+                    .setWeekIndex(buffer.get())
+                    .setStart(date(buffer.getLong()))
+                    .setWeeks(buffer.getInt())
+                    .setExclusions(readDates(buffer))
+                    .build());
+        }
+        return schedules;
+    }
+
+    private static void putBits(final ByteBuffer buffer, final BitSet bits) {
+        final long[] words = bits.toLongArray();
+        for (int i = 0; i < WORDS_PER_YEAR; ++i) {
+            buffer.putLong(i < words.length ? words[i] : 0L);
+        }
+    }
+
+    private static BitSet getBits(final ByteBuffer buffer) {
+        final long[] words = new long[WORDS_PER_YEAR];
+        for (int i = 0; i < WORDS_PER_YEAR; ++i) {
+            words[i] = buffer.getLong();
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private static byte code(final Enum<?> value) {
+        return value == null ? NONE : (byte) value.ordinal();
+    }
+
+    private static DayOfWeek dayOfWeek(final byte code) {
+        return code == NONE ? null : DayOfWeek.values()[code];
+    }
+
+    private static LocalDate date(final long epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Gets a buffer with room for more bytes, growing the given buffer if needed.
+     */
+    private static ByteBuffer ensure(final ByteBuffer buffer, final int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+
+        final ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        return grown.put(buffer);
+    }
+}
@@ -9,6 +9,8 @@ import static java.util.Arrays.asList;
 
 /**
  * Configuration for an entire municipality.
+ * Holidays and leap days are resolved once per year and cached with the configuration,
+ * so the sets given to the builder should not be modified afterwards.
  */
 public final class GlobalGarbageConfiguration {
     public static class Builder {
@@ -21,6 +23,7 @@ public final class GlobalGarbageConfiguration {
         private Set<Holiday> leapDays;
         private Set<Holiday> holidays;
         private Set<LocalDate> bulkDays;
+        private Set<BulkSchedule> bulkSchedules;
 
         /**
          * Creates a new configuration object.
@@ -156,6 +159,28 @@ public final class GlobalGarbageConfiguration {
             this.bulkDays = bulkDays;
             return this;
         }
+
+        /**
+         * Sets recurring bulk days, in addition to any explicit bulk days.
+         * @param bulkSchedules schedules of first days of weeks when bulk garbage will be collected
+         * @return this builder instance
+         * @see #setBulkSchedules(Set)
+         */
+        public Builder setBulkSchedules(final BulkSchedule... bulkSchedules) {
+            return setBulkSchedules(new HashSet<>(asList(bulkSchedules)));
+        }
+
+        /**
+         * Sets recurring bulk days, in addition to any explicit bulk days.
+         * Schedules are resolved a year at a time as the year is needed.
+         * @param bulkSchedules schedules of first days of weeks when bulk garbage will be collected
+         * @return this builder instance
+         * @see #setBulkSchedules(BulkSchedule...)
+         */
+        public Builder setBulkSchedules(final Set<BulkSchedule> bulkSchedules) {
+            this.bulkSchedules = bulkSchedules;
+            return this;
+        }
     }
 
     private final DayOfWeek resetDay;
@@ -167,6 +192,8 @@ public final class GlobalGarbageConfiguration {
     private final Set<Holiday> leapDays;
     private final Set<Holiday> holidays;
     private final Set<LocalDate> bulkDays;
+    private final Set<BulkSchedule> bulkSchedules;
+    private final GarbageCalendar calendar;
 
     public GlobalGarbageConfiguration(final Builder builder) {
         this.resetDay = builder.resetDay;
@@ -178,6 +205,8 @@ public final class GlobalGarbageConfiguration {
         this.leapDays = builder.leapDays;
         this.holidays = builder.holidays;
         this.bulkDays = builder.bulkDays;
+        this.bulkSchedules = builder.bulkSchedules;
+        this.calendar = new GarbageCalendar(this);
     }
 
     public DayOfWeek getResetDay() {
@@ -200,6 +229,10 @@ public final class GlobalGarbageConfiguration {
         return bulkDays;
     }
 
+    public Set<BulkSchedule> getBulkSchedules() {
+        return bulkSchedules;
+    }
+
     public boolean isGarbageEnabled() {
         return garbageEnabled;
     }
@@ -216,6 +249,10 @@ public final class GlobalGarbageConfiguration {
         return recyclingWeeks;
     }
 
+    GarbageCalendar getCalendar() {
+        return calendar;
+    }
+
     /**
      * Creates a new builder instance.
      * @return new builder instance.
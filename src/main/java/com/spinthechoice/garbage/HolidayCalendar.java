@@ -0,0 +1,213 @@
+package com.spinthechoice.garbage;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holidays resolved by year and remembered, for answering many queries across years.
+ * The most recently used years are kept, up to a configurable number; hits and misses are counted.
+ * Instances are thread-safe: remembered years are read without locking, and only adding a year takes a lock.
+ */
+public final class HolidayCalendar {
+    // the Gregorian calendar repeats every 400 years, so a holiday that does not occur in that time never will
+    private static final int MAX_SEARCH_YEARS = 400;
+    private static final int FIRST_CYCLE_YEAR = 2000;
+
+    /**
+     * A resolved year and when it was last used.
+     */
+    private static final class Year {
+        private final long[] days;
+        private volatile long lastUsed;
+
+        private Year(final long[] days, final long lastUsed) {
+            this.days = days;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private final HolidayRules rules;
+    private final int maxYears;
+    private final boolean occurs;
+    private final ConcurrentMap<Integer, Year> years;
+    private final AtomicLong clock;
+    private final LongAdder hitCount;
+    private final LongAdder missCount;
+
+    /**
+     * Creates a calendar.
+     * @param holidays holidays
+     * @param maxYears largest number of years to remember
+     * @throws IllegalArgumentException if {@code maxYears} is not positive
+     */
+    public HolidayCalendar(final Holidays holidays, final int maxYears) {
+        if (maxYears < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxYears);
+        }
+        this.rules = holidays.getRules();
+        this.maxYears = maxYears;
+        this.occurs = occurs(rules);
+        this.years = new ConcurrentHashMap<>();
+        this.clock = new AtomicLong();
+        this.hitCount = new LongAdder();
+        this.missCount = new LongAdder();
+    }
+
+    /**
+     * Returns whether the rules produce any day at all, checking one full cycle of the calendar without remembering it.
+     */
+    private static boolean occurs(final HolidayRules rules) {
+        for (int year = FIRST_CYCLE_YEAR; year < FIRST_CYCLE_YEAR + MAX_SEARCH_YEARS && rules.size() > 0; ++year) {
+            if (rules.epochDays(year).length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long[] year(final int year) {
+        final Year cached = years.get(year);
+        if (cached != null) {
+            cached.lastUsed = clock.incrementAndGet();
+            hitCount.increment();
+            return cached.days;
+        }
+
+        missCount.increment();
+        final long[] resolved = rules.epochDays(year);
+        remember(year, resolved);
+        return resolved;
+    }
+
+    private synchronized void remember(final int year, final long[] days) {
+        years.putIfAbsent(year, new Year(days, clock.incrementAndGet()));
+        while (years.size() > maxYears) {
+            // evict the least recently used year
+            Map.Entry<Integer, Year> eldest = null;
+            for (final Map.Entry<Integer, Year> entry : years.entrySet()) {
+                if (eldest == null || entry.getValue().lastUsed < eldest.getValue().lastUsed) {
+                    eldest = entry;
+                }
+            }
+            years.remove(eldest.getKey());
+        }
+    }
+
+    /**
+     * Gets the holidays during a year.
+     * @param year year
+     * @return sorted epoch days (see {@link LocalDate#toEpochDay()})
+     */
+    public long[] epochDays(final int year) {
+        return year(year).clone();
+    }
+
+    /**
+     * Gets the holidays during a range of years.
+     * @param fromYear first year, inclusive
+     * @param toYear last year, exclusive
+     * @return sorted epoch days (see {@link LocalDate#toEpochDay()})
+     */
+    public long[] epochDays(final int fromYear, final int toYear) {
+        long[] days = new long[0];
+        int count = 0;
+        for (int year = fromYear; year < toYear; ++year) {
+            final long[] resolved = year(year);
+            if (count + resolved.length > days.length) {
+                days = Arrays.copyOf(days, Math.max(days.length * 2, count + resolved.length));
+            }
+            System.arraycopy(resolved, 0, days, count, resolved.length);
+            count += resolved.length;
+        }
+        return Arrays.copyOf(days, count);
+    }
+
+    /**
+     * Gets the holidays during a range of years as a sorted set, for queries like the first holiday after a date.
+     * @param fromYear first year, inclusive
+     * @param toYear last year, exclusive
+     * @return unmodifiable set of dates
+     */
+    public NavigableSet<LocalDate> dates(final int fromYear, final int toYear) {
+        final NavigableSet<LocalDate> dates = new TreeSet<>();
+        for (final long day : epochDays(fromYear, toYear)) {
+            dates.add(LocalDate.ofEpochDay(day));
+        }
+        return Collections.unmodifiableNavigableSet(dates);
+    }
+
+    /**
+     * Finds the first holiday after a date.
+     * @param date date
+     * @return first holiday after the date, or empty if the holidays never occur
+     */
+    public Optional<LocalDate> next(final LocalDate date) {
+        if (!occurs) {
+            return Optional.empty();
+        }
+        final long epochDay = date.toEpochDay();
+        for (int year = date.getYear(); year <= date.getYear() + MAX_SEARCH_YEARS; ++year) {
+            final long[] days = year(year);
+            final int index = Arrays.binarySearch(days, epochDay + 1);
+            final int next = index >= 0 ? index : -(index + 1);
+            if (next < days.length) {
+                return Optional.of(LocalDate.ofEpochDay(days[next]));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the last holiday before a date.
+     * @param date date
+     * @return last holiday before the date, or empty if the holidays never occur
+     */
+    public Optional<LocalDate> previous(final LocalDate date) {
+        if (!occurs) {
+            return Optional.empty();
+        }
+        final long epochDay = date.toEpochDay();
+        for (int year = date.getYear(); year >= date.getYear() - MAX_SEARCH_YEARS; --year) {
+            final long[] days = year(year);
+            final int index = Arrays.binarySearch(days, epochDay - 1);
+            final int previous = index >= 0 ? index : -(index + 1) - 1;
+            if (previous >= 0) {
+                return Optional.of(LocalDate.ofEpochDay(days[previous]));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the number of lookups of a year that was already resolved.
+     * @return number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Gets the number of lookups of a year that had to be resolved.
+     * @return number of cache misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Gets the number of years currently remembered.
+     * @return number of years
+     */
+    public int size() {
+        return years.size();
+    }
+}
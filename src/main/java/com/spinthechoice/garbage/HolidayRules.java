@@ -0,0 +1,160 @@
+package com.spinthechoice.garbage;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Holiday definitions compiled for fast resolution.
+ * Each holiday is resolved arithmetically from the day of week of the first of its month,
+ * and dates are produced as epoch days (see {@link java.time.LocalDate#toEpochDay()}).
+ * Resolves the same dates as {@link Holidays}.
+ */
+public final class HolidayRules {
+    private static final long NONE = Long.MIN_VALUE;
+    private static final int RESOLVED_YEARS = 3;
+
+    private final boolean[] staticDates;
+    private final int[] months;
+    private final int[] dates;
+    private final int[] daysOfWeek;
+    private final int[] weekIndexes;
+    private final int[] offsets;
+    private final int staticDateCount;
+
+    private HolidayRules(final int size, final int staticDateCount) {
+        this.staticDates = new boolean[size];
+        this.months = new int[size];
+        this.dates = new int[size];
+        this.daysOfWeek = new int[size];
+        this.weekIndexes = new int[size];
+        this.offsets = new int[size];
+        this.staticDateCount = staticDateCount;
+    }
+
+    /**
+     * Compiles holiday definitions.
+     * @param holidays holidays; may be {@code null} for none
+     * @return compiled rules
+     * @throws IllegalArgumentException if a holiday that is not on a static date has no day of week
+     */
+    public static HolidayRules compile(final Collection<Holiday> holidays) {
+        if (holidays == null) {
+            return new HolidayRules(0, 0);
+        }
+
+        final int staticDateCount = (int) holidays.stream()
+                .filter(holiday -> holiday.getType() == HolidayType.STATIC_DATE)
+                .count();
+        final HolidayRules rules = new HolidayRules(holidays.size(), staticDateCount);
+        int rule = 0;
+        for (final Holiday holiday : holidays) {
+            rules.staticDates[rule] = holiday.getType() == HolidayType.STATIC_DATE;
+            rules.months[rule] = holiday.getMonth().getValue();
+            rules.dates[rule] = holiday.getDate();
+            if (!rules.staticDates[rule] && holiday.getDayOfWeek() == null) {
+                throw new IllegalArgumentException("Nth day of week holiday in " + holiday.getMonth() +
+                        " requires a day of week");
+            }
+            // static dates ignore the day of week
+            rules.daysOfWeek[rule] = rules.staticDates[rule] ? 0 : holiday.getDayOfWeek().getValue();
+            rules.weekIndexes[rule] = holiday.getWeekIndex();
+            rules.offsets[rule] = toDays(holiday.getOffset());
+            ++rule;
+        }
+        return rules;
+    }
+
+    private static int toDays(final HolidayOffset offset) {
+        switch (offset) {
+            case DAY_AFTER:
+                return 1;
+            case DAY_BEFORE:
+                return -1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Gets the number of rules.
+     * @return number of rules
+     */
+    public int size() {
+        return months.length;
+    }
+
+    /**
+     * Gets the holidays during a year.
+     * Because of offsets, a holiday may move into the year from the year before or after it.
+     * @param year year
+     * @return sorted, distinct epoch days
+     */
+    public long[] epochDays(final int year) {
+        return epochDays(year, year + 1);
+    }
+
+    /**
+     * Gets the holidays during a range of years.
+     * @param fromYear first year, inclusive
+     * @param toYear last year, exclusive
+     * @return sorted, distinct epoch days
+     */
+    public long[] epochDays(final int fromYear, final int toYear) {
+        final GarbageMetrics metrics = GarbageInstrumentation.getMetrics();
+        final long startNanos = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final int years = Math.max(0, toYear - fromYear);
+        // each rule is resolved for the year before and after, too
+        final long[] days = new long[years * size() * RESOLVED_YEARS];
+        int count = 0;
+        for (int year = fromYear; year < toYear; ++year) {
+            count = resolve(year, days, count);
+        }
+
+        if (metrics.isEnabled()) {
+            metrics.holidaysResolved(HolidayType.STATIC_DATE, years * staticDateCount * RESOLVED_YEARS);
+            metrics.holidaysResolved(HolidayType.NTH_DAY_OF_WEEK, years * (size() - staticDateCount) * RESOLVED_YEARS);
+            metrics.holidaysResolved(years, System.nanoTime() - startNanos);
+        }
+        return Arrays.copyOf(days, count);
+    }
+
+    /**
+     * Resolves the holidays during a year, appending them to an array in order.
+     * @return the new number of days in the array
+     */
+    private int resolve(final int year, final long[] days, final int offset) {
+        final long first = EpochDays.of(year, 1, 1);
+        final long last = EpochDays.of(year, 12, 31);
+        int count = offset;
+        for (int rule = 0; rule < size(); ++rule) {
+            // an offset may move a holiday of the next or previous year into this year
+            for (int y = year - 1; y < year - 1 + RESOLVED_YEARS; ++y) {
+                final long day = resolve(rule, y);
+                if (day != NONE && day >= first && day <= last) {
+                    days[count++] = day;
+                }
+            }
+        }
+
+        Arrays.sort(days, offset, count);
+        int distinct = offset;
+        for (int i = offset; i < count; ++i) {
+            if (i == offset || days[i] != days[distinct - 1]) {
+                days[distinct++] = days[i];
+            }
+        }
+        return distinct;
+    }
+
+    private long resolve(final int rule, final int year) {
+        final int month = months[rule];
+        if (staticDates[rule]) {
+            final int date = dates[rule];
+            return date < 1 || date > EpochDays.lengthOfMonth(year, month) ? NONE
+                    : EpochDays.of(year, month, date) + offsets[rule];
+        }
+
+        final long day = EpochDays.nthDayOfWeek(year, month, daysOfWeek[rule], weekIndexes[rule]);
+        return day == NONE ? NONE : day + offsets[rule];
+    }
+}
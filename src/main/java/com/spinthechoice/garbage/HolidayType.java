@@ -2,12 +2,8 @@ package com.spinthechoice.garbage;
 
 import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Optional;
 
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.IntStream.rangeClosed;
-
 /**
  * All methods of defining when a holiday takes place.
  */
@@ -34,23 +30,18 @@ public enum HolidayType {
     NTH_DAY_OF_WEEK {
         @Override
         public Optional<LocalDate> toLocalDate(final Holiday holiday, final int year) {
-            final int daysInMonth = daysInMonth(holiday, year);
-            final List<LocalDate> dates = rangeClosed(1, daysInMonth)
-                    .boxed()
-                    .map(dayOfMonth -> LocalDate.of(year, holiday.getMonth().getValue(), dayOfMonth))
-                    .filter(date -> date.getDayOfWeek() == holiday.getDayOfWeek())
-                    .collect(toList());
-            final int index = holiday.getWeekIndex() < 0 ? holiday.getWeekIndex() + dates.size() : holiday.getWeekIndex();
-            return index >= dates.size() ? Optional.empty() : Optional.of(holiday.getOffset().apply(dates.get(index)));
-        }
-
-        private int daysInMonth(final Holiday holiday, final int year) {
             final LocalDate firstOfMonth = LocalDate.of(year, holiday.getMonth().getValue(), 1);
-            final boolean leapYear = firstOfMonth.isLeapYear();
-            return holiday.getMonth().length(leapYear);
+            final int firstMatch = Math.floorMod(
+                    holiday.getDayOfWeek().getValue() - firstOfMonth.getDayOfWeek().getValue(), DAYS_PER_WEEK);
+            final int matches = (firstOfMonth.lengthOfMonth() - 1 - firstMatch) / DAYS_PER_WEEK + 1;
+            final int index = holiday.getWeekIndex() < 0 ? holiday.getWeekIndex() + matches : holiday.getWeekIndex();
+            return index < 0 || index >= matches ? Optional.empty()
+                    : Optional.of(holiday.getOffset().apply(firstOfMonth.plusDays(firstMatch + (long) index * DAYS_PER_WEEK)));
         }
     };
 
+    private static final int DAYS_PER_WEEK = 7;
+
     /**
      * Converts the holiday to its date for the given year.
      * Because of date offsets, the date may be in the next or previous year.
@@ -4,15 +4,13 @@ import java.time.LocalDate;
 import java.util.*;
 
 import static java.util.Arrays.asList;
-import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.toSet;
-import static java.util.stream.IntStream.rangeClosed;
 
 /**
  * Calculates actual dates of holidays given collections of holiday definitions.
  */
 public class Holidays {
-    private final Set<Holiday> holidays;
+    private final HolidayRules rules;
 
     /**
      * Creates a new instance using the specified holidays.
@@ -27,7 +25,7 @@ public class Holidays {
      * @param holidays holidays
      */
     public Holidays(final Collection<Holiday> holidays) {
-        this.holidays = holidays == null ? emptySet() : new HashSet<>(holidays);
+        this.rules = HolidayRules.compile(holidays);
     }
 
     /**
@@ -36,14 +34,12 @@ public class Holidays {
      * @return dates of holidays
      */
     public Set<LocalDate> dates(final int year) {
-        // for day offsets to work for all days, this needs to be run for the next and previous years
-        // in addition to the current year; then remove all days not within the given year
-        return rangeClosed(year - 1, year + 1)
-                .boxed()
-                .flatMap(y -> holidays.stream().map(holiday -> holiday.getType().toLocalDate(holiday, y)))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(date -> date.getYear() == year)
+        return Arrays.stream(rules.epochDays(year))
+                .mapToObj(LocalDate::ofEpochDay)
                 .collect(toSet());
     }
+
+    HolidayRules getRules() {
+        return rules;
+    }
 }
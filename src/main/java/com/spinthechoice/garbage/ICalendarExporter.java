@@ -0,0 +1,249 @@
+package com.spinthechoice.garbage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.OptionalLong;
+import java.util.stream.LongStream;
+
+/**
+ * Writes a customer's schedule as an iCalendar (RFC 5545) feed.
+ * Garbage and recycling are recurring events whose rules follow the customer's rotation, split at the start date
+ * when the rotation is longer than a week. Only the days holidays and leap days change are listed:
+ * days the rotation would collect but holidays cancel are excluded with {@code EXDATE},
+ * and days collection moves to, such as after leap days, are added with {@code RDATE}.
+ * Bulk collection is a single event with every bulk day as an {@code RDATE}.
+ * Events are written as they are produced, without computing every day of the range.
+ */
+public final class ICalendarExporter {
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final int DAYS_PER_WEEK = 7;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("uuuuMMdd'T'HHmmss'Z'");
+
+    private final Garbage garbage;
+    private final Clock clock;
+
+    /**
+     * Creates an exporter that stamps events with the current time.
+     * @param garbage customer
+     */
+    public ICalendarExporter(final Garbage garbage) {
+        this(garbage, Clock.systemUTC());
+    }
+
+    /**
+     * Creates an exporter.
+     * @param garbage customer
+     * @param clock clock for the time events are stamped with
+     */
+    public ICalendarExporter(final Garbage garbage, final Clock clock) {
+        this.garbage = garbage;
+        this.clock = clock;
+    }
+
+    /**
+     * Writes the customer's schedule for a range of dates.
+     * The stream is flushed but not closed.
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public void write(final LocalDate from, final LocalDate to, final OutputStream out) throws IOException {
+        Garbage.checkRange(from, to);
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        write(from.toEpochDay(), to.toEpochDay(), writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes the customer's schedule for a range of dates.
+     * The channel is not closed.
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @param channel channel to write to
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public void write(final LocalDate from, final LocalDate to, final WritableByteChannel channel) throws IOException {
+        write(from, to, Channels.newOutputStream(channel));
+    }
+
+    private void write(final long from, final long to, final Writer writer) throws IOException {
+        final String stamp = TIMESTAMP.format(clock.instant().atOffset(ZoneOffset.UTC));
+        line(writer, "BEGIN:VCALENDAR");
+        line(writer, "VERSION:2.0");
+        line(writer, "PRODID:-//spinthechoice//garbage//EN");
+        line(writer, "CALSCALE:GREGORIAN");
+        writeRotation(writer, Rotation.of(garbage, GarbageDay.GARBAGE), "Garbage", from, to, stamp);
+        writeRotation(writer, Rotation.of(garbage, GarbageDay.RECYCLING), "Recycling", from, to, stamp);
+        writeBulk(writer, from, to, stamp);
+        line(writer, "END:VCALENDAR");
+    }
+
+    /**
+     * Writes the events of a rotation.
+     * Every week before the start date is one of the customer's weeks, so a rotation of more than one week
+     * is written as a weekly event until the start date followed by an event every n weeks after it.
+     */
+    private void writeRotation(final Writer writer, final Rotation rotation, final String summary,
+                               final long from, final long to, final String stamp) throws IOException {
+        if (!rotation.isEnabled()) {
+            return;
+        } else if (rotation.getWeeks() <= 1) {
+            writeRotation(writer, rotation, summary, from, to, 1, stamp);
+            return;
+        }
+
+        final long start = rotation.getGarbage().getStart();
+        writeRotation(writer, rotation, summary, from, Math.min(start, to), 1, stamp);
+        writeRotation(writer, rotation, summary, Math.max(start, from), to, rotation.getWeeks(), stamp);
+    }
+
+    /**
+     * Writes the event of a rotation over days on which the customer's weeks repeat at a single interval.
+     * The rule follows the rotation; only days on which holidays and leap days change collection are listed.
+     * @param interval weeks between the customer's usual days
+     */
+    private void writeRotation(final Writer writer, final Rotation rotation, final String summary,
+                               final long from, final long to, final int interval, final String stamp)
+            throws IOException {
+        if (from >= to) {
+            return;
+        }
+
+        final Garbage customer = rotation.getGarbage();
+        final int dayOfWeek = customer.getUserConfig().getDayOfWeek().getValue();
+        long first = from + Math.floorMod(dayOfWeek - EpochDays.dayOfWeekValue(from), DAYS_PER_WEEK);
+        if (interval > 1) {
+            first += (long) DAYS_PER_WEEK *
+                    Math.floorMod(rotation.getUsersWeek() - customer.getWeekNumber(first), interval);
+        }
+        final boolean recurring = first < to && rotation.isUsersDay(first);
+
+        final LongStream.Builder excluded = LongStream.builder();
+        final LongStream.Builder added = LongStream.builder();
+        final GarbageCalendar calendar = customer.getGlobalConfig().getCalendar();
+        for (long day = calendar.nextIrregularDay(from, to); day < to; day = calendar.nextIrregularDay(day + 1, to)) {
+            final boolean usual = recurring && EpochDays.dayOfWeekValue(day) == dayOfWeek && rotation.isUsersDay(day);
+            final boolean actual = rotation.isPickup(day);
+            if (usual && !actual) {
+                excluded.add(day);
+            } else if (actual && !usual) {
+                added.add(day);
+            }
+        }
+        writeEvent(writer, summary, from, to, recurring ? OptionalLong.of(first) : OptionalLong.empty(), interval,
+                excluded.build().toArray(), added.build().toArray(), stamp);
+    }
+
+    /**
+     * Writes the bulk event, visiting only the weeks that follow bulk days.
+     */
+    private void writeBulk(final Writer writer, final long from, final long to, final String stamp)
+            throws IOException {
+        final Rotation rotation = Rotation.of(garbage, GarbageDay.BULK);
+        final GarbageCalendar calendar = garbage.getGlobalConfig().getCalendar();
+        final LongStream.Builder days = LongStream.builder();
+        long day = from;
+        long bulkDay = calendar.nextBulkDay(from - (DAYS_PER_WEEK - 1));
+        while (bulkDay < to && day < to) {
+            final long end = Math.min(to, bulkDay + DAYS_PER_WEEK);
+            for (day = Math.max(day, bulkDay); day < end; ++day) {
+                if (rotation.isPickup(day)) {
+                    days.add(day);
+                }
+            }
+            bulkDay = calendar.nextBulkDay(day - (DAYS_PER_WEEK - 1));
+        }
+        writeEvent(writer, "Bulk garbage", from, to, OptionalLong.empty(), 0, new long[0], days.build().toArray(),
+                stamp);
+    }
+
+    /**
+     * Writes an event.
+     * @param from first day the event covers, which identifies it
+     * @param to last day the event covers, exclusive
+     * @param rule first day of a weekly rule, or empty for an event without a rule
+     * @param interval weeks between days of the rule
+     * @param excluded days of the rule without collection
+     * @param added days of collection outside the rule; the first is the start of an event without a rule
+     */
+    private void writeEvent(final Writer writer, final String summary, final long from, final long to,
+                            final OptionalLong rule, final int interval, final long[] excluded, final long[] added,
+                            final String stamp) throws IOException {
+        final boolean recurring = rule.isPresent();
+        if (!recurring && added.length == 0) {
+            return;
+        }
+
+        final long first = recurring ? rule.getAsLong() : added[0];
+        line(writer, "BEGIN:VEVENT");
+        line(writer, "UID:" + uid(summary, from));
+        line(writer, "DTSTAMP:" + stamp);
+        line(writer, "DTSTART;VALUE=DATE:" + date(first));
+        if (recurring) {
+            line(writer, "RRULE:FREQ=WEEKLY;INTERVAL=" + interval + ";UNTIL=" + date(to - 1));
+        }
+        if (excluded.length > 0) {
+            line(writer, "EXDATE;VALUE=DATE:" + dates(excluded, 0));
+        }
+        if (added.length > (recurring ? 0 : 1)) {
+            line(writer, "RDATE;VALUE=DATE:" + dates(added, recurring ? 0 : 1));
+        }
+        line(writer, "SUMMARY:" + summary);
+        line(writer, "TRANSP:TRANSPARENT");
+        line(writer, "END:VEVENT");
+    }
+
+    private String uid(final String summary, final long from) {
+        final UserGarbageConfiguration user = garbage.getUserConfig();
+        return summary.toLowerCase() + '-' + user.getDayOfWeek().getValue() + '-' + user.getGarbageWeek() + '-' +
+                user.getRecyclingWeek() + '-' + date(from) + "@garbage.spinthechoice.com";
+    }
+
+    private static String dates(final long[] days, final int from) {
+        final StringBuilder dates = new StringBuilder();
+        for (int i = from; i < days.length; ++i) {
+            if (i > from) {
+                dates.append(',');
+            }
+            dates.append(date(days[i]));
+        }
+        return dates.toString();
+    }
+
+    private static String date(final long epochDay) {
+        return DATE.format(LocalDate.ofEpochDay(epochDay));
+    }
+
+    /**
+     * Writes a content line, folding it into lines of at most 75 octets.
+     * Folded lines continue with a single space. Every character written is ASCII.
+     */
+    private static void line(final Writer writer, final String line) throws IOException {
+        int start = 0;
+        int limit = MAX_LINE_OCTETS;
+        while (line.length() - start > limit) {
+            writer.write(line, start, limit);
+            writer.write(CRLF);
+            writer.write(' ');
+            start += limit;
+            limit = MAX_LINE_OCTETS - 1;
+        }
+        writer.write(line, start, line.length() - start);
+        writer.write(CRLF);
+    }
+}
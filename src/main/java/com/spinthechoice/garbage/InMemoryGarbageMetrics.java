@@ -0,0 +1,130 @@
+package com.spinthechoice.garbage;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics kept in memory, to be read periodically and published elsewhere.
+ * Counters only grow; timings are kept in histograms.
+ */
+public final class InMemoryGarbageMetrics implements GarbageMetrics {
+    private final LatencyHistogram computeLatency = new LatencyHistogram();
+    private final LatencyHistogram rangeLatency = new LatencyHistogram();
+    private final LongAdder rangeDays = new LongAdder();
+    private final LongAdder yearCacheHits = new LongAdder();
+    private final LongAdder yearCacheMisses = new LongAdder();
+    private final LatencyHistogram yearResolveLatency = new LatencyHistogram();
+    private final LatencyHistogram holidayResolveLatency = new LatencyHistogram();
+    private final Map<HolidayType, LongAdder> holidayResolutions = new EnumMap<>(HolidayType.class);
+    private final LongAdder bulkDayProbes = new LongAdder();
+
+    public InMemoryGarbageMetrics() {
+        for (final HolidayType type : HolidayType.values()) {
+            holidayResolutions.put(type, new LongAdder());
+        }
+    }
+
+    @Override
+    public void computed(final long nanos) {
+        computeLatency.record(nanos);
+    }
+
+    @Override
+    public void rangeComputed(final long days, final long nanos) {
+        rangeDays.add(days);
+        rangeLatency.record(nanos);
+    }
+
+    @Override
+    public void yearCacheHit(final int year) {
+        yearCacheHits.increment();
+    }
+
+    @Override
+    public void yearCacheMiss(final int year) {
+        yearCacheMisses.increment();
+    }
+
+    @Override
+    public void yearResolved(final int year, final long nanos) {
+        yearResolveLatency.record(nanos);
+    }
+
+    @Override
+    public void holidaysResolved(final int years, final long nanos) {
+        holidayResolveLatency.record(nanos);
+    }
+
+    @Override
+    public void holidaysResolved(final HolidayType type, final int resolutions) {
+        holidayResolutions.get(type).add(resolutions);
+    }
+
+    @Override
+    public void bulkDayProbed() {
+        bulkDayProbes.increment();
+    }
+
+    /**
+     * Gets the latencies of single-day computations.
+     * @return histogram of nanoseconds
+     */
+    public LatencyHistogram getComputeLatency() {
+        return computeLatency;
+    }
+
+    /**
+     * Gets the latencies of walks over ranges of days.
+     * @return histogram of nanoseconds
+     */
+    public LatencyHistogram getRangeLatency() {
+        return rangeLatency;
+    }
+
+    /**
+     * Gets the number of days walked in ranges.
+     * @return number of days
+     */
+    public long getRangeDays() {
+        return rangeDays.sum();
+    }
+
+    public long getYearCacheHits() {
+        return yearCacheHits.sum();
+    }
+
+    public long getYearCacheMisses() {
+        return yearCacheMisses.sum();
+    }
+
+    /**
+     * Gets the latencies of resolving a municipality's year; the count is the number of years resolved.
+     * Concurrent misses of the same year resolve it once, so this may count fewer than the misses.
+     * @return histogram of nanoseconds
+     */
+    public LatencyHistogram getYearResolveLatency() {
+        return yearResolveLatency;
+    }
+
+    /**
+     * Gets the latencies of resolving holidays.
+     * @return histogram of nanoseconds
+     */
+    public LatencyHistogram getHolidayResolveLatency() {
+        return holidayResolveLatency;
+    }
+
+    /**
+     * Gets the number of holiday dates computed of a type.
+     * @param type holiday type
+     * @return number of dates
+     */
+    public long getHolidayResolutions(final HolidayType type) {
+        return holidayResolutions.get(type).sum();
+    }
+
+    public long getBulkDayProbes() {
+        return bulkDayProbes.sum();
+    }
+}
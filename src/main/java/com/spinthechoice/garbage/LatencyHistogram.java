@@ -0,0 +1,121 @@
+package com.spinthechoice.garbage;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, such as latencies in nanoseconds.
+ * Values below 16 are counted exactly; larger values are counted in 8 buckets per power of two,
+ * so percentiles are accurate to within 12.5%.
+ */
+public final class LatencyHistogram {
+    private static final int EXACT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_POWER = 4;
+    private static final int BUCKETS = EXACT + (Long.SIZE - 1 - FIRST_POWER) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value.
+     * @param value value; negative values are recorded as 0
+     */
+    public void record(final long value) {
+        final long recorded = Math.max(value, 0L);
+        buckets.incrementAndGet(bucketOf(recorded));
+        count.increment();
+        sum.add(recorded);
+        if (recorded > max.get()) {
+            max.accumulateAndGet(recorded, Math::max);
+        }
+    }
+
+    static int bucketOf(final long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        final int power = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (power - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (power - FIRST_POWER) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the largest value in a bucket.
+     */
+    static long highestValueOf(final int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        final int power = (bucket - EXACT) / SUB_BUCKETS + FIRST_POWER;
+        final long subBucket = (bucket - EXACT) % SUB_BUCKETS;
+        final long width = 1L << (power - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + subBucket) * width) + (width - 1);
+    }
+
+    /**
+     * Gets the number of values recorded.
+     * @return number of values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean of the values recorded.
+     * @return mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        final long n = count.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Gets the largest value recorded.
+     * @return largest value, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets a percentile of the values recorded.
+     * Values recorded while this is called may or may not be included.
+     * @param percentile percentile, from 0 to 100
+     * @return an upper bound of the percentile, no greater than the largest value; or 0 if nothing was recorded
+     */
+    public long getPercentile(final double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Percentile must be from 0 to 100: " + percentile);
+        }
+
+        long total = 0;
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return 0L;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + getCount() +
+                ", mean=" + getMean() +
+                ", p50=" + getPercentile(50.0) +
+                ", p99=" + getPercentile(99.0) +
+                ", max=" + getMax() + '}';
+    }
+}
@@ -0,0 +1,94 @@
+package com.spinthechoice.garbage;
+
+/**
+ * Counts a customer's collections of one kind over a range of days.
+ * Garbage and recycling are counted arithmetically from the rotation as if there were no holidays or leap days,
+ * then corrected on each day that is canceled or postponed, so the cost depends on the number of years and holidays
+ * rather than the number of days. Bulk collections are counted by visiting only the weeks that follow bulk days.
+ */
+final class PickupCounter {
+    private static final int DAYS_PER_WEEK = 7;
+
+    private final Rotation rotation;
+
+    PickupCounter(final Rotation rotation) {
+        this.rotation = rotation;
+    }
+
+    /**
+     * Counts collections in a range of days.
+     * @param from first day, inclusive
+     * @param to last day, exclusive
+     * @return number of collections
+     */
+    long count(final long from, final long to) {
+        if (from >= to || !rotation.isEnabled()) {
+            return 0;
+        }
+        return rotation.getFlag() == GarbageDay.BULK ? countBulk(from, to) : countRotation(from, to);
+    }
+
+    private long countRotation(final long from, final long to) {
+        final GarbageCalendar calendar = rotation.getGarbage().getGlobalConfig().getCalendar();
+        long count = countUsualDays(from, to);
+        for (long day = calendar.nextIrregularDay(from, to); day < to; day = calendar.nextIrregularDay(day + 1, to)) {
+            final int actual = rotation.isPickup(day) ? 1 : 0;
+            final int usual = isUsualDay(day) && rotation.isUsersDay(day) ? 1 : 0;
+            count += actual - usual;
+        }
+        return count;
+    }
+
+    private boolean isUsualDay(final long epochDay) {
+        return EpochDays.dayOfWeek(epochDay) == rotation.getGarbage().getUserConfig().getDayOfWeek();
+    }
+
+    private long countUsualDays(final long from, final long to) {
+        final Garbage garbage = rotation.getGarbage();
+        final int dayOfWeek = garbage.getUserConfig().getDayOfWeek().getValue();
+        final long first = from + Math.floorMod(dayOfWeek - EpochDays.dayOfWeek(from).getValue(), DAYS_PER_WEEK);
+        if (first >= to) {
+            return 0;
+        }
+        final long last = first + (to - 1 - first) / DAYS_PER_WEEK * DAYS_PER_WEEK;
+
+        // the customer is collected every week before the start date
+        final long start = garbage.getStart();
+        long count = 0;
+        if (first < start) {
+            count += (Math.min(last, start - 1) - first) / DAYS_PER_WEEK + 1;
+        }
+
+        final long firstAfterStart = first >= start ? first
+                : first + (start - first + DAYS_PER_WEEK - 1) / DAYS_PER_WEEK * DAYS_PER_WEEK;
+        if (firstAfterStart > last || !rotation.isValidUsersWeek()) {
+            return count;
+        } else if (rotation.getWeeks() <= 1) {
+            return count + (last - firstAfterStart) / DAYS_PER_WEEK + 1;
+        }
+
+        // usual days are a week apart, so their week numbers are consecutive
+        final long firstWeek = garbage.getWeekNumber(firstAfterStart);
+        final long lastWeek = garbage.getWeekNumber(last);
+        final int weeks = rotation.getWeeks();
+        final int usersWeek = rotation.getUsersWeek();
+        return count + Math.floorDiv(lastWeek - usersWeek, weeks) - Math.floorDiv(firstWeek - 1 - usersWeek, weeks);
+    }
+
+    private long countBulk(final long from, final long to) {
+        final GarbageCalendar calendar = rotation.getGarbage().getGlobalConfig().getCalendar();
+        long count = 0;
+        long day = from;
+        long bulkDay = calendar.nextBulkDay(from - (DAYS_PER_WEEK - 1));
+        while (bulkDay < to && day < to) {
+            final long end = Math.min(to, bulkDay + DAYS_PER_WEEK);
+            for (day = Math.max(day, bulkDay); day < end; ++day) {
+                if (rotation.isPickup(day)) {
+                    ++count;
+                }
+            }
+            bulkDay = calendar.nextBulkDay(day - (DAYS_PER_WEEK - 1));
+        }
+        return count;
+    }
+}
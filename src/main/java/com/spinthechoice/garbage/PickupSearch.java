@@ -0,0 +1,125 @@
+package com.spinthechoice.garbage;
+
+/**
+ * Finds a customer's next or previous collection of one kind.
+ * Garbage and recycling searches jump between the weeks of the customer's rotation and only compute the two days
+ * the customer could be collected in each of those weeks: the usual day, and the day after it if a leap day
+ * postponed collection. Bulk searches only visit the weeks that follow bulk days.
+ */
+final class PickupSearch {
+    /** Result when no collection is found. */
+    static final long NONE = Long.MIN_VALUE;
+
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int MAX_SEARCH_DAYS = 3653;
+
+    private final Rotation rotation;
+
+    PickupSearch(final Rotation rotation) {
+        this.rotation = rotation;
+    }
+
+    /**
+     * Finds the first collection on or after the given day.
+     * @param from first day to consider
+     * @return day of collection, or {@link #NONE}
+     */
+    long next(final long from) {
+        if (rotation.getFlag() == GarbageDay.BULK) {
+            return nextBulk(from);
+        } else if (!rotation.isEnabled()) {
+            return NONE;
+        }
+
+        final Garbage garbage = rotation.getGarbage();
+        final long limit = from + MAX_SEARCH_DAYS;
+        long week = garbage.getWeekNumber(from);
+        while (garbage.getWeekStart(week) <= limit) {
+            if (!rotation.isUsersWeek(week)) {
+                if (!rotation.isValidUsersWeek()) {
+                    // every later week is after the start date and none of them are the customer's
+                    return NONE;
+                }
+                week += Math.floorMod(rotation.getUsersWeek() - week, rotation.getWeeks());
+                continue;
+            }
+
+            final long earlier = Math.min(rotation.getUsualDay(week), rotation.getPostponedDay(week));
+            final long later = Math.max(rotation.getUsualDay(week), rotation.getPostponedDay(week));
+            if (earlier >= from && rotation.isPickup(earlier)) {
+                return earlier;
+            } else if (later >= from && rotation.isPickup(later)) {
+                return later;
+            }
+            ++week;
+        }
+        return NONE;
+    }
+
+    /**
+     * Finds the last collection on or before the given day.
+     * @param from last day to consider
+     * @return day of collection, or {@link #NONE}
+     */
+    long previous(final long from) {
+        if (rotation.getFlag() == GarbageDay.BULK) {
+            return previousBulk(from);
+        } else if (!rotation.isEnabled()) {
+            return NONE;
+        }
+
+        final Garbage garbage = rotation.getGarbage();
+        final long limit = from - MAX_SEARCH_DAYS;
+        long week = garbage.getWeekNumber(from);
+        while (garbage.getWeekStart(week + 1) > limit) {
+            if (!rotation.isUsersWeek(week)) {
+                // every week before the start date is the customer's
+                final long lastBeforeStart = garbage.getWeekNumber(garbage.getStart() - 1);
+                week = rotation.isValidUsersWeek()
+                        ? Math.max(week - Math.floorMod(week - rotation.getUsersWeek(), rotation.getWeeks()), lastBeforeStart)
+                        : lastBeforeStart;
+                continue;
+            }
+
+            final long earlier = Math.min(rotation.getUsualDay(week), rotation.getPostponedDay(week));
+            final long later = Math.max(rotation.getUsualDay(week), rotation.getPostponedDay(week));
+            if (later <= from && rotation.isPickup(later)) {
+                return later;
+            } else if (earlier <= from && rotation.isPickup(earlier)) {
+                return earlier;
+            }
+            --week;
+        }
+        return NONE;
+    }
+
+    private long nextBulk(final long from) {
+        final GarbageCalendar calendar = rotation.getGarbage().getGlobalConfig().getCalendar();
+        long day = from;
+        long bulkDay = calendar.nextBulkDay(from - (DAYS_PER_WEEK - 1));
+        while (bulkDay != Long.MAX_VALUE) {
+            for (day = Math.max(day, bulkDay); day < bulkDay + DAYS_PER_WEEK; ++day) {
+                if (rotation.isPickup(day)) {
+                    return day;
+                }
+            }
+            bulkDay = calendar.nextBulkDay(day - (DAYS_PER_WEEK - 1));
+        }
+        return NONE;
+    }
+
+    private long previousBulk(final long from) {
+        final GarbageCalendar calendar = rotation.getGarbage().getGlobalConfig().getCalendar();
+        long day = from;
+        long bulkDay = calendar.previousBulkDay(from);
+        while (bulkDay != Long.MIN_VALUE) {
+            for (day = Math.min(day, bulkDay + DAYS_PER_WEEK - 1); day >= bulkDay; --day) {
+                if (rotation.isPickup(day)) {
+                    return day;
+                }
+            }
+            bulkDay = calendar.previousBulkDay(day);
+        }
+        return NONE;
+    }
+}
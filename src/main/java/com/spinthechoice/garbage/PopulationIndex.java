@@ -0,0 +1,145 @@
+package com.spinthechoice.garbage;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+/**
+ * Customers of a municipality indexed by schedule class, to find everyone collected on a day without visiting
+ * everyone else. Customers may be added, moved and removed while other threads read; readers see each customer
+ * in its old class, its new class or briefly both, but the index is never corrupted.
+ * @param <K> customer ID
+ */
+public final class PopulationIndex<K> {
+    private final GarbageBatch batch;
+    private final ConcurrentMap<K, UserGarbageConfiguration> customers;
+    private final AtomicReferenceArray<Set<K>> classes;
+
+    /**
+     * Creates an empty index.
+     * @param config municipality configuration
+     */
+    public PopulationIndex(final GlobalGarbageConfiguration config) {
+        this.batch = new GarbageBatch(config);
+        this.customers = new ConcurrentHashMap<>();
+        this.classes = new AtomicReferenceArray<>(batch.getScheduleClassCount());
+    }
+
+    /**
+     * Adds a customer, or moves it if its configuration changed.
+     * @param id customer ID
+     * @param user customer configuration
+     */
+    public void put(final K id, final UserGarbageConfiguration user) {
+        // updates of the same customer are serialized by the map
+        customers.compute(id, (key, previous) -> {
+            final int index = batch.indexOf(user);
+            classOf(index).add(key);
+            if (previous != null && batch.indexOf(previous) != index) {
+                classOf(batch.indexOf(previous)).remove(key);
+            }
+            return user;
+        });
+    }
+
+    /**
+     * Removes a customer.
+     * @param id customer ID
+     * @return {@code true} if the customer was in the index
+     */
+    public boolean remove(final K id) {
+        final AtomicBoolean removed = new AtomicBoolean();
+        customers.computeIfPresent(id, (key, previous) -> {
+            classOf(batch.indexOf(previous)).remove(key);
+            removed.set(true);
+            return null;
+        });
+        return removed.get();
+    }
+
+    /**
+     * Gets a customer's configuration.
+     * @param id customer ID
+     * @return configuration, or empty if the customer is not in the index
+     */
+    public Optional<UserGarbageConfiguration> get(final K id) {
+        return Optional.ofNullable(customers.get(id));
+    }
+
+    /**
+     * Gets the number of customers.
+     * @return number of customers
+     */
+    public int size() {
+        return customers.size();
+    }
+
+    /**
+     * Counts the customers in each schedule class, for {@link GarbageBatch#forecast(Map, LocalDate, LocalDate)}.
+     * Each class is keyed by a configuration representing it.
+     * @return number of customers by schedule class
+     */
+    public Map<UserGarbageConfiguration, Long> getHistogram() {
+        final Map<UserGarbageConfiguration, Long> histogram = new HashMap<>();
+        for (int index = 0; index < classes.length(); ++index) {
+            final Set<K> customers = classes.get(index);
+            if (customers != null && !customers.isEmpty()) {
+                histogram.put(batch.getScheduleClass(index), (long) customers.size());
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Gets the customers with any collection on a date.
+     * @param date date to inspect
+     * @return customer IDs
+     */
+    public Stream<K> getCustomers(final LocalDate date) {
+        return getCustomers(date, GarbageDay.GARBAGE | GarbageDay.RECYCLING | GarbageDay.BULK);
+    }
+
+    /**
+     * Gets the customers with any of the given kinds of collection on a date.
+     * Only the schedule classes collected on the date are visited.
+     * @param date date to inspect
+     * @param flags bitwise combination of {@link GarbageDay#GARBAGE}, {@link GarbageDay#RECYCLING} and {@link GarbageDay#BULK}
+     * @return customer IDs
+     */
+    public Stream<K> getCustomers(final LocalDate date, final int flags) {
+        final BitSet collected = batch.collections(date).getClasses(flags);
+        return collected.stream().mapToObj(this::getCustomers).flatMap(Set::stream);
+    }
+
+    /**
+     * Gets the customers in a schedule class.
+     * @param index class index
+     * @return unmodifiable live view of the customer IDs
+     */
+    Set<K> getCustomers(final int index) {
+        final Set<K> customers = classes.get(index);
+        return customers != null ? Collections.unmodifiableSet(customers) : Collections.emptySet();
+    }
+
+    GarbageBatch getBatch() {
+        return batch;
+    }
+
+    private Set<K> classOf(final int index) {
+        final Set<K> existing = classes.get(index);
+        if (existing != null) {
+            return existing;
+        }
+        final Set<K> created = ConcurrentHashMap.newKeySet();
+        return classes.compareAndSet(index, null, created) ? created : classes.get(index);
+    }
+}
@@ -0,0 +1,27 @@
+package com.spinthechoice.garbage;
+
+/**
+ * A customer's collection on the day being reminded of.
+ * @param <K> customer ID
+ */
+public final class Reminder<K> {
+    private final K customerId;
+    private final GarbageDay garbageDay;
+
+    public Reminder(final K customerId, final GarbageDay garbageDay) {
+        this.customerId = customerId;
+        this.garbageDay = garbageDay;
+    }
+
+    public K getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the customer's collection; customers in the same schedule class share an instance.
+     * @return garbage collection summary
+     */
+    public GarbageDay getGarbageDay() {
+        return garbageDay;
+    }
+}
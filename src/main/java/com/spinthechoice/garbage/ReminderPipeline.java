@@ -0,0 +1,194 @@
+package com.spinthechoice.garbage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Produces reminders for every customer collected on a day and delivers them to a sink in bounded batches.
+ * The population is walked by schedule class, so each class's collection is computed once; batches are handed
+ * to a separate delivery thread through a bounded queue, so a slow sink holds back the walk rather than
+ * letting batches pile up in memory.
+ * @param <K> customer ID
+ */
+public final class ReminderPipeline<K> {
+    public static class Builder<K> {
+        private int batchSize = 1000;
+        private int queueCapacity = 4;
+        private ReminderSink<K> sink;
+
+        /**
+         * Creates a new pipeline.
+         * @return pipeline
+         * @throws IllegalStateException if no sink was set
+         */
+        public ReminderPipeline<K> build() {
+            if (sink == null) {
+                throw new IllegalStateException("Reminder sink is required");
+            }
+            return new ReminderPipeline<>(this);
+        }
+
+        /**
+         * Sets the largest number of reminders delivered at once.
+         * @param batchSize batch size, defaults to 1000
+         * @return this builder instance
+         */
+        public Builder<K> setBatchSize(final int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of batches that may wait for the sink before producing blocks.
+         * @param queueCapacity number of batches, defaults to 4
+         * @return this builder instance
+         */
+        public Builder<K> setQueueCapacity(final int queueCapacity) {
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the sink.
+         * @param sink receives batches of reminders
+         * @return this builder instance
+         */
+        public Builder<K> setSink(final ReminderSink<K> sink) {
+            this.sink = sink;
+            return this;
+        }
+    }
+
+    private static final List<?> END = Collections.emptyList();
+
+    /**
+     * Creates a builder.
+     * @param <K> customer ID
+     * @return builder
+     */
+    public static <K> Builder<K> builder() {
+        return new Builder<>();
+    }
+
+    private final int batchSize;
+    private final int queueCapacity;
+    private final ReminderSink<K> sink;
+
+    private ReminderPipeline(final Builder<K> builder) {
+        this.batchSize = builder.batchSize;
+        this.queueCapacity = builder.queueCapacity;
+        this.sink = builder.sink;
+    }
+
+    /**
+     * Delivers reminders to every customer with a collection on a date.
+     * Customers added to or removed from the population during the run may or may not be reminded.
+     * @param population customers
+     * @param date date of collection, usually tomorrow
+     * @return summary of the run
+     * @throws InterruptedException if interrupted while waiting for the sink
+     * @throws IllegalStateException if the sink failed; no further batches are delivered after a failure
+     */
+    public ReminderReport run(final PopulationIndex<K> population, final LocalDate date) throws InterruptedException {
+        final long started = System.nanoTime();
+        final Delivery delivery = new Delivery(new ArrayBlockingQueue<>(queueCapacity));
+        final Thread thread = new Thread(delivery, "garbage-reminders");
+        thread.setDaemon(true);
+        thread.start();
+
+        long reminderCount = 0;
+        try {
+            final DailyCollections collections = population.getBatch().collections(date);
+            final BitSet collected = collections.getClasses(GarbageDay.GARBAGE | GarbageDay.RECYCLING | GarbageDay.BULK);
+            List<Reminder<K>> batch = new ArrayList<>(batchSize);
+            for (int index = collected.nextSetBit(0); index >= 0 && delivery.failure == null;
+                 index = collected.nextSetBit(index + 1)) {
+                final GarbageDay garbageDay = new GarbageDay(date, collections.getFlags(index));
+                for (final K customerId : population.getCustomers(index)) {
+                    batch.add(new Reminder<>(customerId, garbageDay));
+                    if (batch.size() == batchSize) {
+                        delivery.queue.put(batch);
+                        reminderCount += batch.size();
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                delivery.queue.put(batch);
+                reminderCount += batch.size();
+            }
+        } finally {
+            end(delivery, thread);
+        }
+
+        if (delivery.failure != null) {
+            throw new IllegalStateException("Reminder sink failed", delivery.failure);
+        }
+        return new ReminderReport(reminderCount, delivery.latencies(), Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void end(final Delivery delivery, final Thread thread) throws InterruptedException {
+        delivery.queue.put((List<Reminder<K>>) END);
+        thread.join();
+    }
+
+    /**
+     * Takes batches off the queue and delivers them until the end marker.
+     * After a failure, batches are discarded so that the producer never blocks.
+     */
+    private final class Delivery implements Runnable {
+        private final BlockingQueue<List<Reminder<K>>> queue;
+        private long[] latencies = new long[16];
+        private int batchCount;
+        private volatile Throwable failure;
+
+        Delivery(final BlockingQueue<List<Reminder<K>>> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (List<Reminder<K>> batch = queue.take(); batch != END; batch = queue.take()) {
+                    if (failure == null) {
+                        deliver(batch);
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void deliver(final List<Reminder<K>> batch) {
+            final long started = System.nanoTime();
+            try {
+                sink.deliver(Collections.unmodifiableList(batch));
+            } catch (final RuntimeException | Error e) {
+                failure = e;
+                return;
+            }
+            if (batchCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, batchCount * 2);
+            }
+            latencies[batchCount++] = System.nanoTime() - started;
+        }
+
+        long[] latencies() {
+            return Arrays.copyOf(latencies, batchCount);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.spinthechoice.garbage;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Summary of a run of a {@link ReminderPipeline}.
+ */
+public final class ReminderReport {
+    private final long reminderCount;
+    private final long[] batchLatencies;
+    private final Duration elapsed;
+
+    ReminderReport(final long reminderCount, final long[] batchLatencies, final Duration elapsed) {
+        this.reminderCount = reminderCount;
+        this.batchLatencies = batchLatencies;
+        this.elapsed = elapsed;
+    }
+
+    public long getReminderCount() {
+        return reminderCount;
+    }
+
+    public int getBatchCount() {
+        return batchLatencies.length;
+    }
+
+    /**
+     * Gets the time the sink took to deliver each batch, in delivery order.
+     * @return latencies in nanoseconds
+     */
+    public long[] getBatchLatencies() {
+        return batchLatencies.clone();
+    }
+
+    /**
+     * Gets the longest time the sink took to deliver a batch.
+     * @return longest latency, or zero if there were no batches
+     */
+    public Duration getMaxBatchLatency() {
+        return Duration.ofNanos(Arrays.stream(batchLatencies).max().orElse(0));
+    }
+
+    /**
+     * Gets the time from the start of the run until the last batch was delivered.
+     * @return elapsed time
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+}
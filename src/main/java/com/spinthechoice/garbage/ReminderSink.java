@@ -0,0 +1,18 @@
+package com.spinthechoice.garbage;
+
+import java.util.List;
+
+/**
+ * Receives batches of reminders from a {@link ReminderPipeline}, for example to push them to a notifier.
+ * Batches are delivered one at a time from a single thread.
+ * @param <K> customer ID
+ */
+@FunctionalInterface
+public interface ReminderSink<K> {
+    /**
+     * Delivers a batch of reminders.
+     * The pipeline blocks while the sink is busy once enough batches are waiting.
+     * @param reminders batch, never empty
+     */
+    void deliver(List<Reminder<K>> reminders);
+}
@@ -0,0 +1,123 @@
+package com.spinthechoice.garbage;
+
+/**
+ * A customer's rotation for one kind of collection: whether it is enabled,
+ * the number of weeks in the rotation and the customer's week.
+ * Bulk collection is treated as an enabled weekly rotation; bulk weeks are checked separately.
+ */
+final class Rotation {
+    private static final int DAYS_PER_WEEK = 7;
+
+    private final Garbage garbage;
+    private final int flag;
+    private final boolean enabled;
+    private final int weeks;
+    private final int usersWeek;
+
+    private Rotation(final Garbage garbage, final int flag, final boolean enabled, final int weeks, final int usersWeek) {
+        this.garbage = garbage;
+        this.flag = flag;
+        this.enabled = enabled;
+        this.weeks = weeks;
+        this.usersWeek = usersWeek;
+    }
+
+    /**
+     * Gets the customer's rotation for a kind of collection.
+     * @param garbage customer
+     * @param flag one of {@link GarbageDay#GARBAGE}, {@link GarbageDay#RECYCLING} or {@link GarbageDay#BULK}
+     * @return rotation
+     */
+    static Rotation of(final Garbage garbage, final int flag) {
+        final GlobalGarbageConfiguration config = garbage.getGlobalConfig();
+        final UserGarbageConfiguration user = garbage.getUserConfig();
+        if (flag == GarbageDay.GARBAGE) {
+            return new Rotation(garbage, flag, config.isGarbageEnabled(), config.getGarbageWeeks(), user.getGarbageWeek());
+        } else if (flag == GarbageDay.RECYCLING) {
+            return new Rotation(garbage, flag, config.isRecyclingEnabled(), config.getRecyclingWeeks(), user.getRecyclingWeek());
+        } else {
+            return new Rotation(garbage, flag, true, 1, 0);
+        }
+    }
+
+    Garbage getGarbage() {
+        return garbage;
+    }
+
+    int getFlag() {
+        return flag;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    int getWeeks() {
+        return weeks;
+    }
+
+    int getUsersWeek() {
+        return usersWeek;
+    }
+
+    /**
+     * Returns whether the customer's week can ever match after the start date.
+     * @return {@code true} if the customer's week is within the rotation
+     */
+    boolean isValidUsersWeek() {
+        return weeks <= 1 || usersWeek >= 0 && usersWeek < weeks;
+    }
+
+    /**
+     * Returns whether the customer may be collected during the given week.
+     * Every week that begins before the start date qualifies.
+     * @param week week number
+     * @return {@code true} if the week is one of the customer's weeks
+     */
+    boolean isUsersWeek(final long week) {
+        return weeks <= 1 || garbage.getWeekStart(week) < garbage.getStart() ||
+                Math.floorMod(week, (long) weeks) == usersWeek;
+    }
+
+    /**
+     * Returns whether the given day is in the customer's rotation, ignoring holidays and leap days.
+     * @param epochDay day
+     * @return {@code true} if the day is before the start date or in one of the customer's weeks
+     */
+    boolean isUsersDay(final long epochDay) {
+        return epochDay < garbage.getStart() || weeks <= 1 ||
+                Math.floorMod(garbage.getWeekNumber(epochDay), (long) weeks) == usersWeek;
+    }
+
+    /**
+     * Gets the day of the week on which the customer is usually collected.
+     * @param week week number
+     * @return the customer's usual day
+     */
+    long getUsualDay(final long week) {
+        return dayOfWeekInWeek(week, garbage.getUserConfig().getDayOfWeek().getValue());
+    }
+
+    /**
+     * Gets the day of the week on which the customer is collected when a leap day postpones collection.
+     * @param week week number
+     * @return the day after the customer's usual day of week
+     */
+    long getPostponedDay(final long week) {
+        return dayOfWeekInWeek(week, garbage.getUserConfig().getDayOfWeek().getValue() + 1);
+    }
+
+    private long dayOfWeekInWeek(final long week, final int dayOfWeek) {
+        final long first = garbage.getWeekStart(week);
+        return first + Math.floorMod(dayOfWeek - EpochDays.dayOfWeek(first).getValue(), DAYS_PER_WEEK);
+    }
+
+    /**
+     * Returns whether the customer is collected on the given day.
+     * @param epochDay day
+     * @return {@code true} if collected
+     */
+    boolean isPickup(final long epochDay) {
+        return (garbage.computeFlags(epochDay) & flag) != 0;
+    }
+}
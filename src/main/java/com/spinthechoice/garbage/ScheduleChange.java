@@ -0,0 +1,57 @@
+package com.spinthechoice.garbage;
+
+import java.time.LocalDate;
+
+/**
+ * A change in the collection of one schedule class on a single day.
+ * Flags are combinations of {@link GarbageDay#GARBAGE}, {@link GarbageDay#RECYCLING} and {@link GarbageDay#BULK}.
+ */
+public final class ScheduleChange {
+    private final LocalDate date;
+    private final UserGarbageConfiguration scheduleClass;
+    private final int index;
+    private final int oldFlags;
+    private final int newFlags;
+
+    ScheduleChange(final LocalDate date, final UserGarbageConfiguration scheduleClass, final int index,
+                   final int oldFlags, final int newFlags) {
+        this.date = date;
+        this.scheduleClass = scheduleClass;
+        this.index = index;
+        this.oldFlags = oldFlags;
+        this.newFlags = newFlags;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Gets a customer configuration in the changed schedule class.
+     * @return configuration with the schedule of the class
+     * @see ScheduleDelta#getChanges(UserGarbageConfiguration)
+     */
+    public UserGarbageConfiguration getScheduleClass() {
+        return scheduleClass;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    public int getOldFlags() {
+        return oldFlags;
+    }
+
+    public int getNewFlags() {
+        return newFlags;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleChange{date=" + date +
+                ", scheduleClass=" + scheduleClass +
+                ", oldFlags=" + oldFlags +
+                ", newFlags=" + newFlags + '}';
+    }
+}
@@ -0,0 +1,130 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.BitSet;
+
+/**
+ * Numbers the distinct schedules of a municipality.
+ * A customer's schedule depends only on the day of week, the garbage week and the recycling week, so customers with
+ * the same schedule class are collected on exactly the same days. Weeks that cannot affect the schedule are merged:
+ * every week is the same when a rotation is disabled or weekly, and every week outside the rotation is never collected.
+ */
+final class ScheduleClasses {
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int ALL_SLOTS = -1;
+    private static final int NO_SLOT = -2;
+
+    private final GlobalGarbageConfiguration config;
+    private final int garbageWeeks;
+    private final int recyclingWeeks;
+    private final Garbage weeks;
+
+    ScheduleClasses(final GlobalGarbageConfiguration config) {
+        this.config = config;
+        this.garbageWeeks = weekSlots(config.isGarbageEnabled(), config.getGarbageWeeks());
+        this.recyclingWeeks = weekSlots(config.isRecyclingEnabled(), config.getRecyclingWeeks());
+        // week numbers only depend on the municipality, so any customer will do
+        this.weeks = new Garbage(config, get(0));
+    }
+
+    private static int weekSlots(final boolean enabled, final int weeks) {
+        // one slot per week of the rotation, plus one for customers outside it
+        return !enabled || weeks <= 1 ? 1 : weeks + 1;
+    }
+
+    private static int weekSlot(final int week, final int slots) {
+        if (slots == 1) {
+            return 0;
+        }
+        return week >= 0 && week < slots - 1 ? week : slots - 1;
+    }
+
+    /**
+     * Gets the number of schedule classes.
+     * @return number of classes
+     */
+    int size() {
+        return DAYS_PER_WEEK * garbageWeeks * recyclingWeeks;
+    }
+
+    /**
+     * Gets the schedule class of a customer.
+     * @param user customer configuration
+     * @return class index, from 0 inclusive to {@link #size()} exclusive
+     */
+    int indexOf(final UserGarbageConfiguration user) {
+        return indexOf(user.getDayOfWeek().getValue() - 1,
+                weekSlot(user.getGarbageWeek(), garbageWeeks), weekSlot(user.getRecyclingWeek(), recyclingWeeks));
+    }
+
+    /**
+     * Gets a customer configuration representing a schedule class.
+     * @param index class index
+     * @return configuration with the schedule of the class
+     */
+    UserGarbageConfiguration get(final int index) {
+        final int recyclingWeek = index % recyclingWeeks;
+        final int garbageWeek = index / recyclingWeeks % garbageWeeks;
+        final int dayOfWeek = index / recyclingWeeks / garbageWeeks;
+        return new UserGarbageConfiguration(DayOfWeek.of(dayOfWeek + 1), garbageWeek, recyclingWeek);
+    }
+
+    /**
+     * Finds the schedule classes collected on a day.
+     * The holiday, leap day, bulk week and week of the rotation are looked up once and shared by every class.
+     * @param epochDay day
+     * @return classes collected on the day
+     */
+    DailyCollections collections(final long epochDay) {
+        final BitSet garbage = new BitSet(size());
+        final BitSet recycling = new BitSet(size());
+        final BitSet bulk = new BitSet(size());
+        final YearCalendar year = config.getCalendar().yearOf(epochDay);
+        if (!year.isHoliday(epochDay)) {
+            // only customers usually collected on this day, or the day before if collection is postponed, match
+            final int minusDays = year.isLeapForward(epochDay) ? 1 : 0;
+            final int dayOfWeek = EpochDays.dayOfWeek(epochDay).minus(minusDays).getValue() - 1;
+            final int first = indexOf(dayOfWeek, 0, 0);
+            final int last = indexOf(dayOfWeek + 1, 0, 0);
+
+            final int garbageSlot = usersSlot(epochDay, config.isGarbageEnabled(), config.getGarbageWeeks());
+            if (garbageSlot == ALL_SLOTS) {
+                garbage.set(first, last);
+            } else if (garbageSlot >= 0) {
+                garbage.set(indexOf(dayOfWeek, garbageSlot, 0), indexOf(dayOfWeek, garbageSlot + 1, 0));
+            }
+
+            final int recyclingSlot = usersSlot(epochDay, config.isRecyclingEnabled(), config.getRecyclingWeeks());
+            if (recyclingSlot == ALL_SLOTS) {
+                recycling.set(first, last);
+            } else if (recyclingSlot >= 0) {
+                for (int index = indexOf(dayOfWeek, 0, recyclingSlot); index < last; index += recyclingWeeks) {
+                    recycling.set(index);
+                }
+            }
+
+            if (year.isBulkWeek(epochDay)) {
+                bulk.set(first, last);
+            }
+        }
+        return new DailyCollections(LocalDate.ofEpochDay(epochDay), this, garbage, recycling, bulk);
+    }
+
+    /**
+     * Gets the week slot collected on a day.
+     * @return the slot, {@link #ALL_SLOTS} or {@link #NO_SLOT}
+     */
+    private int usersSlot(final long epochDay, final boolean enabled, final int weekCount) {
+        if (!enabled) {
+            return NO_SLOT;
+        } else if (epochDay < weeks.getStart() || weekCount <= 1) {
+            return ALL_SLOTS;
+        }
+        return (int) Math.floorMod(weeks.getWeekNumber(epochDay), (long) weekCount);
+    }
+
+    private int indexOf(final int dayOfWeek, final int garbageWeek, final int recyclingWeek) {
+        return (dayOfWeek * garbageWeeks + garbageWeek) * recyclingWeeks + recyclingWeek;
+    }
+}
@@ -0,0 +1,48 @@
+package com.spinthechoice.garbage;
+
+/**
+ * Walks a customer's schedule one epoch day at a time.
+ * The cursor's own calendar window and the garbage and recycling weeks are carried from day to day
+ * and only recomputed when they can change. Advancing allocates nothing except when moving into a new calendar window.
+ */
+final class ScheduleCursor {
+    private final Garbage garbage;
+    private final GarbageCalendar calendar;
+    private long epochDay;
+    private CalendarWindow window;
+    private long nextWeekChange;
+    private int weekFlags;
+
+    ScheduleCursor(final Garbage garbage, final long from) {
+        this.garbage = garbage;
+        this.calendar = garbage.getGlobalConfig().getCalendar();
+        this.epochDay = from;
+        this.nextWeekChange = from;
+    }
+
+    /**
+     * Gets the day whose flags will be returned by the next call to {@link #next()}.
+     * @return epoch day
+     */
+    long getEpochDay() {
+        return epochDay;
+    }
+
+    /**
+     * Computes the current day and advances to the following day.
+     * @return collection flags of the current day
+     */
+    int next() {
+        window = calendar.window(epochDay, window);
+        if (epochDay == nextWeekChange) {
+            weekFlags = garbage.getWeekFlags(epochDay);
+            nextWeekChange = garbage.getNextWeekChange(epochDay);
+        }
+
+        final YearCalendar year = window.yearOf(epochDay);
+        final int flags = !garbage.isDayOfWeekMatch(epochDay, year) ? 0 :
+                weekFlags | (year.isBulkWeek(epochDay) ? GarbageDay.BULK : 0);
+        ++epochDay;
+        return flags;
+    }
+}
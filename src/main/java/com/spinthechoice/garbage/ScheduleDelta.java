@@ -0,0 +1,182 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Changes to the collections of a municipality's customers when its configuration changes.
+ * When the rotations are unchanged, customers share schedule classes before and after, and a class can only change on
+ * days whose holiday, leap day or bulk week changed; only those days are computed.
+ * Otherwise every day is compared for every combination of weeks that either configuration distinguishes.
+ */
+public final class ScheduleDelta {
+    private static final int DAYS_PER_WEEK = 7;
+
+    private final List<ScheduleChange> changes;
+    private final ToIntFunction<UserGarbageConfiguration> classOf;
+    private final boolean rotationChanged;
+
+    private ScheduleDelta(final List<ScheduleChange> changes, final ToIntFunction<UserGarbageConfiguration> classOf,
+                          final boolean rotationChanged) {
+        this.changes = Collections.unmodifiableList(changes);
+        this.classOf = classOf;
+        this.rotationChanged = rotationChanged;
+    }
+
+    /**
+     * Finds the changes between two configurations of a municipality.
+     * @param oldConfig configuration before the change
+     * @param newConfig configuration after the change
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @return changes in date order
+     * @throws IllegalArgumentException if {@code to} is before {@code from}
+     */
+    public static ScheduleDelta between(final GlobalGarbageConfiguration oldConfig,
+                                        final GlobalGarbageConfiguration newConfig,
+                                        final LocalDate from, final LocalDate to) {
+        Garbage.checkRange(from, to);
+        return isSameRotation(oldConfig, newConfig)
+                ? calendarDelta(oldConfig, newConfig, from.toEpochDay(), to.toEpochDay())
+                : fullDelta(oldConfig, newConfig, from.toEpochDay(), to.toEpochDay());
+    }
+
+    private static boolean isSameRotation(final GlobalGarbageConfiguration a, final GlobalGarbageConfiguration b) {
+        return a.getResetDay() == b.getResetDay() &&
+                Objects.equals(a.getStart(), b.getStart()) &&
+                a.isGarbageEnabled() == b.isGarbageEnabled() &&
+                a.getGarbageWeeks() == b.getGarbageWeeks() &&
+                a.isRecyclingEnabled() == b.isRecyclingEnabled() &&
+                a.getRecyclingWeeks() == b.getRecyclingWeeks();
+    }
+
+    /**
+     * Compares only the days whose calendars differ.
+     */
+    private static ScheduleDelta calendarDelta(final GlobalGarbageConfiguration oldConfig,
+                                               final GlobalGarbageConfiguration newConfig,
+                                               final long from, final long to) {
+        final ScheduleClasses oldClasses = new ScheduleClasses(oldConfig);
+        final ScheduleClasses newClasses = new ScheduleClasses(newConfig);
+        final List<ScheduleChange> changes = new ArrayList<>();
+        if (from < to) {
+            final int lastYear = EpochDays.year(to - 1);
+            for (int year = EpochDays.year(from); year <= lastYear; ++year) {
+                final YearCalendar oldYear = oldConfig.getCalendar().year(year);
+                final YearCalendar newYear = newConfig.getCalendar().year(year);
+                final BitSet changed = difference(oldYear.getHolidays(), newYear.getHolidays());
+                changed.or(difference(oldYear.getLeapForward(), newYear.getLeapForward()));
+                changed.or(difference(oldYear.getBulkWeeks(), newYear.getBulkWeeks()));
+
+                final long first = oldYear.getFirstEpochDay();
+                final int end = (int) (Math.min(oldYear.getLastEpochDay() + 1, to) - first);
+                for (int day = changed.nextSetBit((int) Math.max(from - first, 0));
+                     day >= 0 && day < end; day = changed.nextSetBit(day + 1)) {
+                    final DailyCollections before = oldClasses.collections(first + day);
+                    final DailyCollections after = newClasses.collections(first + day);
+                    for (int index = 0; index < newClasses.size(); ++index) {
+                        addChange(changes, before.getDate(), newClasses.get(index), index,
+                                before.getFlags(index), after.getFlags(index));
+                    }
+                }
+            }
+        }
+        return new ScheduleDelta(changes, newClasses::indexOf, false);
+    }
+
+    private static BitSet difference(final BitSet a, final BitSet b) {
+        final BitSet difference = (BitSet) a.clone();
+        difference.xor(b);
+        return difference;
+    }
+
+    /**
+     * Compares every day, for every combination of weeks that either configuration distinguishes.
+     */
+    private static ScheduleDelta fullDelta(final GlobalGarbageConfiguration oldConfig,
+                                           final GlobalGarbageConfiguration newConfig,
+                                           final long from, final long to) {
+        // week -1 stands for every week outside both rotations
+        final int garbageWeeks = Math.max(rotationWeeks(oldConfig.isGarbageEnabled(), oldConfig.getGarbageWeeks()),
+                rotationWeeks(newConfig.isGarbageEnabled(), newConfig.getGarbageWeeks())) + 1;
+        final int recyclingWeeks = Math.max(
+                rotationWeeks(oldConfig.isRecyclingEnabled(), oldConfig.getRecyclingWeeks()),
+                rotationWeeks(newConfig.isRecyclingEnabled(), newConfig.getRecyclingWeeks())) + 1;
+        final ToIntFunction<UserGarbageConfiguration> classOf = user ->
+                ((user.getDayOfWeek().getValue() - 1) * garbageWeeks + slot(user.getGarbageWeek(), garbageWeeks)) *
+                        recyclingWeeks + slot(user.getRecyclingWeek(), recyclingWeeks);
+
+        final List<UserGarbageConfiguration> users = new ArrayList<>();
+        for (int index = 0; index < DAYS_PER_WEEK * garbageWeeks * recyclingWeeks; ++index) {
+            users.add(new UserGarbageConfiguration(
+                    DayOfWeek.of(index / recyclingWeeks / garbageWeeks + 1),
+                    index / recyclingWeeks % garbageWeeks - 1,
+                    index % recyclingWeeks - 1));
+        }
+
+        final ScheduleClasses oldClasses = new ScheduleClasses(oldConfig);
+        final ScheduleClasses newClasses = new ScheduleClasses(newConfig);
+        final int[] oldIndexes = users.stream().mapToInt(oldClasses::indexOf).toArray();
+        final int[] newIndexes = users.stream().mapToInt(newClasses::indexOf).toArray();
+        final List<ScheduleChange> changes = new ArrayList<>();
+        for (long epochDay = from; epochDay < to; ++epochDay) {
+            final DailyCollections before = oldClasses.collections(epochDay);
+            final DailyCollections after = newClasses.collections(epochDay);
+            for (int index = 0; index < users.size(); ++index) {
+                addChange(changes, before.getDate(), users.get(index), index,
+                        before.getFlags(oldIndexes[index]), after.getFlags(newIndexes[index]));
+            }
+        }
+        return new ScheduleDelta(changes, classOf, true);
+    }
+
+    private static int rotationWeeks(final boolean enabled, final int weeks) {
+        return enabled && weeks > 1 ? weeks : 0;
+    }
+
+    private static int slot(final int week, final int slots) {
+        return week >= 0 && week < slots - 1 ? week + 1 : 0;
+    }
+
+    private static void addChange(final List<ScheduleChange> changes, final LocalDate date,
+                                  final UserGarbageConfiguration scheduleClass, final int index,
+                                  final int oldFlags, final int newFlags) {
+        if (oldFlags != newFlags) {
+            changes.add(new ScheduleChange(date, scheduleClass, index, oldFlags, newFlags));
+        }
+    }
+
+    /**
+     * Gets every change, in date order.
+     * @return changes
+     */
+    public List<ScheduleChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Gets the changes to a customer's collections, in date order.
+     * @param user customer configuration
+     * @return changes
+     */
+    public List<ScheduleChange> getChanges(final UserGarbageConfiguration user) {
+        final int index = classOf.applyAsInt(user);
+        return changes.stream().filter(change -> change.getIndex() == index).collect(toList());
+    }
+
+    /**
+     * Returns whether the rotations changed, in which case every day was compared.
+     * @return {@code true} if the start date, reset day or a rotation changed
+     */
+    public boolean isRotationChanged() {
+        return rotationChanged;
+    }
+}
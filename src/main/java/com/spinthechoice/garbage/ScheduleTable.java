@@ -0,0 +1,185 @@
+package com.spinthechoice.garbage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Precomputed collections of every schedule class of a municipality over a range of dates, mapped from a file.
+ * The table holds one byte of flags per day and schedule class, so a lookup is a single read at a computed offset.
+ * Files are mapped read-only, so processes on one host reading the same table share its pages.
+ * Dates outside the table are computed as usual.
+ * The header holds a fingerprint of the configuration's settings and calendars over the table's years,
+ * so a table is only opened for the configuration it was written for.
+ */
+public final class ScheduleTable {
+    private static final int MAGIC = 0x47524254;
+    private static final short VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int CHUNK_BYTES = 1 << 16;
+
+    private final GlobalGarbageConfiguration config;
+    private final ScheduleClasses classes;
+    private final MappedByteBuffer table;
+    private final long firstEpochDay;
+    private final long lastEpochDay;
+
+    private ScheduleTable(final GlobalGarbageConfiguration config, final ScheduleClasses classes,
+                          final MappedByteBuffer table, final long firstEpochDay, final int days) {
+        this.config = config;
+        this.classes = classes;
+        this.table = table;
+        this.firstEpochDay = firstEpochDay;
+        this.lastEpochDay = firstEpochDay + days - 1;
+    }
+
+    /**
+     * Computes a table and writes it.
+     * The channel is not closed.
+     * @param config municipality configuration
+     * @param from first date, inclusive
+     * @param to last date, exclusive
+     * @param channel channel to write to
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if {@code to} is before {@code from} or the table would be too large to map
+     */
+    public static void write(final GlobalGarbageConfiguration config, final LocalDate from, final LocalDate to,
+                             final WritableByteChannel channel) throws IOException {
+        Garbage.checkRange(from, to);
+        final ScheduleClasses classes = new ScheduleClasses(config);
+        final int size = classes.size();
+        final long days = to.toEpochDay() - from.toEpochDay();
+        if (HEADER_BYTES + days * size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Schedule table is too large");
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(Math.max(CHUNK_BYTES, HEADER_BYTES + size));
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0)
+                .putInt(size).putInt((int) days).putLong(from.toEpochDay())
+                .putLong(fingerprint(config, from.toEpochDay(), (int) days));
+        for (long epochDay = from.toEpochDay(); epochDay < to.toEpochDay(); ++epochDay) {
+            if (buffer.remaining() < size) {
+                flush(buffer, channel);
+            }
+            final DailyCollections collections = classes.collections(epochDay);
+            for (int index = 0; index < size; ++index) {
+                buffer.put((byte) collections.getFlags(index));
+            }
+        }
+        flush(buffer, channel);
+    }
+
+    private static void flush(final ByteBuffer buffer, final WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Fingerprints everything a table's flags depend on:
+     * the configuration's settings and its resolved calendars over the table's years and the years next to them.
+     */
+    static long fingerprint(final GlobalGarbageConfiguration config, final long firstEpochDay, final int days) {
+        long hash = Objects.hash(config.getResetDay(), config.getStart(), config.isGarbageEnabled(),
+                config.getGarbageWeeks(), config.isRecyclingEnabled(), config.getRecyclingWeeks());
+        final int lastYear = EpochDays.year(firstEpochDay + Math.max(days - 1, 0)) + 1;
+        for (int year = EpochDays.year(firstEpochDay) - 1; year <= lastYear; ++year) {
+            final YearCalendar calendar = config.getCalendar().year(year);
+            hash = 31 * hash + calendar.getHolidays().hashCode();
+            hash = 31 * hash + calendar.getLeapForward().hashCode();
+            hash = 31 * hash + calendar.getBulkWeeks().hashCode();
+            hash = 31 * hash + calendar.getBulkDays().hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Maps a table written for a municipality.
+     * The table stays usable after the file is closed.
+     * @param config municipality configuration the table was written for
+     * @param path table file
+     * @return table
+     * @throws IOException if reading fails, or the file is not a table for the configuration
+     */
+    public static ScheduleTable open(final GlobalGarbageConfiguration config, final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a schedule table");
+            }
+
+            final MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (table.getInt(0) != MAGIC) {
+                throw new IOException("Not a schedule table");
+            }
+            final short version = table.getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported schedule table version " + version);
+            }
+
+            final ScheduleClasses classes = new ScheduleClasses(config);
+            final int size = table.getInt(8);
+            final int days = table.getInt(12);
+            if (size != classes.size()) {
+                throw new IOException("Schedule table has " + size + " schedule classes but configuration has " +
+                        classes.size());
+            } else if (channel.size() != HEADER_BYTES + (long) days * size) {
+                throw new IOException("Malformed schedule table");
+            }
+
+            final long firstEpochDay = table.getLong(16);
+            if (table.getLong(24) != fingerprint(config, firstEpochDay, days)) {
+                throw new IOException("Schedule table was written for another configuration");
+            }
+            return new ScheduleTable(config, classes, table, firstEpochDay, days);
+        }
+    }
+
+    /**
+     * Gets the first date in the table.
+     * @return first date
+     */
+    public LocalDate getFrom() {
+        return LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    /**
+     * Gets the date after the last date in the table.
+     * @return last date, exclusive
+     */
+    public LocalDate getTo() {
+        return LocalDate.ofEpochDay(lastEpochDay + 1);
+    }
+
+    /**
+     * Determines garbage collection for a customer on a date.
+     * @param user customer configuration
+     * @param date date
+     * @return collection for the date
+     * @see Garbage#compute(LocalDate)
+     */
+    public GarbageDay compute(final UserGarbageConfiguration user, final LocalDate date) {
+        return new GarbageDay(date, computeFlags(user, date.toEpochDay()));
+    }
+
+    /**
+     * Determines garbage collection for a customer on a day.
+     * @param user customer configuration
+     * @param epochDay day
+     * @return flags of {@link GarbageDay}
+     * @see Garbage#computeFlags(long)
+     */
+    public int computeFlags(final UserGarbageConfiguration user, final long epochDay) {
+        if (epochDay < firstEpochDay || epochDay > lastEpochDay) {
+            return new Garbage(config, user).computeFlags(epochDay);
+        }
+        return table.get(HEADER_BYTES + (int) (epochDay - firstEpochDay) * classes.size() + classes.indexOf(user));
+    }
+}
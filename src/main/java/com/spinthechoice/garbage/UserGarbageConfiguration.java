@@ -1,9 +1,11 @@
 package com.spinthechoice.garbage;
 
 import java.time.DayOfWeek;
+import java.util.Objects;
 
 /**
  * Configuration for a single customer or premise.
+ * Configurations are equal when all three inputs are equal.
  */
 public final class UserGarbageConfiguration {
     private final DayOfWeek dayOfWeek;
@@ -33,4 +35,27 @@ public final class UserGarbageConfiguration {
     public int getRecyclingWeek() {
         return recyclingWeek;
     }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        } else if (!(o instanceof UserGarbageConfiguration)) {
+            return false;
+        }
+        final UserGarbageConfiguration other = (UserGarbageConfiguration) o;
+        return dayOfWeek == other.dayOfWeek && garbageWeek == other.garbageWeek && recyclingWeek == other.recyclingWeek;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dayOfWeek, garbageWeek, recyclingWeek);
+    }
+
+    @Override
+    public String toString() {
+        return "UserGarbageConfiguration{dayOfWeek=" + dayOfWeek +
+                ", garbageWeek=" + garbageWeek +
+                ", recyclingWeek=" + recyclingWeek + '}';
+    }
 }
@@ -0,0 +1,201 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.util.BitSet;
+
+/**
+ * Holidays, leap days, bulk days and bulk weeks of a single year, indexed by day of year.
+ */
+final class YearCalendar {
+    private static final int MAX_DAYS_PER_YEAR = 366;
+    private static final int DAYS_PER_WEEK = 7;
+
+    private final int year;
+    private final long firstEpochDay;
+    private final long lastEpochDay;
+    private final BitSet holidays;
+    private final BitSet leapForward;
+    private final BitSet bulkWeeks;
+    private final BitSet bulkDays;
+
+    private YearCalendar(final int year, final long firstEpochDay, final long lastEpochDay,
+                         final BitSet holidays, final BitSet leapForward, final BitSet bulkWeeks,
+                         final BitSet bulkDays) {
+        this.year = year;
+        this.firstEpochDay = firstEpochDay;
+        this.lastEpochDay = lastEpochDay;
+        this.holidays = holidays;
+        this.leapForward = leapForward;
+        this.bulkWeeks = bulkWeeks;
+        this.bulkDays = bulkDays;
+    }
+
+    /**
+     * Resolves the holidays and leap days of a municipality for a year.
+     * @param holidays compiled holidays
+     * @param leapDays compiled leap days
+     * @param resetDay day of week that leap days reset to normal
+     * @param bulkDays bulk days
+     * @param year year
+     * @return calendar for the year
+     */
+    static YearCalendar of(final HolidayRules holidays, final HolidayRules leapDays, final DayOfWeek resetDay,
+                           final BulkDays bulkDays, final int year) {
+        final long firstEpochDay = EpochDays.of(year, 1, 1);
+        final long lastEpochDay = EpochDays.of(year, 12, 31);
+        final BitSet holidayBits = new BitSet(MAX_DAYS_PER_YEAR);
+        final BitSet leapForwardBits = new BitSet(MAX_DAYS_PER_YEAR);
+
+        for (final long holiday : holidays.epochDays(year)) {
+            holidayBits.set((int) (holiday - firstEpochDay));
+        }
+
+        // a leap day late in the previous year can postpone collection into this year
+        for (final long leapDay : leapDays.epochDays(year - 1, year + 1)) {
+            if (leapDay >= firstEpochDay) {
+                holidayBits.set((int) (leapDay - firstEpochDay));
+            }
+
+            // collection is postponed from the day after the leap day until the reset day
+            final int daysUntilReset =
+                    Math.floorMod(resetDay.getValue() - EpochDays.dayOfWeekValue(leapDay), DAYS_PER_WEEK);
+            final long from = Math.max(leapDay + 1, firstEpochDay);
+            final long to = Math.min(leapDay + daysUntilReset, lastEpochDay + 1);
+            if (from < to) {
+                leapForwardBits.set((int) (from - firstEpochDay), (int) (to - firstEpochDay));
+            }
+        }
+
+        // a bulk day late in the previous year starts a bulk week that ends in this year
+        final BitSet bulkWeekBits = new BitSet(MAX_DAYS_PER_YEAR);
+        final BitSet bulkDayBits = new BitSet(MAX_DAYS_PER_YEAR);
+        for (final long bulkDay : bulkDays.epochDays(year - 1, year + 1)) {
+            if (bulkDay >= firstEpochDay) {
+                bulkDayBits.set((int) (bulkDay - firstEpochDay));
+            }
+            final long from = Math.max(bulkDay, firstEpochDay);
+            final long to = Math.min(bulkDay + DAYS_PER_WEEK, lastEpochDay + 1);
+            if (from < to) {
+                bulkWeekBits.set((int) (from - firstEpochDay), (int) (to - firstEpochDay));
+            }
+        }
+
+        return new YearCalendar(year, firstEpochDay, lastEpochDay, holidayBits, leapForwardBits, bulkWeekBits,
+                bulkDayBits);
+    }
+
+    /**
+     * Restores a calendar resolved earlier, such as one read from a snapshot.
+     * @param year year
+     * @param holidays days of year without collection
+     * @param leapForward days of year with collection postponed
+     * @param bulkWeeks days of year in bulk weeks
+     * @param bulkDays days of year that are bulk days
+     * @return calendar for the year
+     */
+    static YearCalendar of(final int year, final BitSet holidays, final BitSet leapForward, final BitSet bulkWeeks,
+                           final BitSet bulkDays) {
+        return new YearCalendar(year, EpochDays.of(year, 1, 1), EpochDays.of(year, 12, 31),
+                holidays, leapForward, bulkWeeks, bulkDays);
+    }
+
+    int getYear() {
+        return year;
+    }
+
+    BitSet getHolidays() {
+        return holidays;
+    }
+
+    BitSet getLeapForward() {
+        return leapForward;
+    }
+
+    BitSet getBulkWeeks() {
+        return bulkWeeks;
+    }
+
+    BitSet getBulkDays() {
+        return bulkDays;
+    }
+
+    long getFirstEpochDay() {
+        return firstEpochDay;
+    }
+
+    long getLastEpochDay() {
+        return lastEpochDay;
+    }
+
+    boolean contains(final long epochDay) {
+        return epochDay >= firstEpochDay && epochDay <= lastEpochDay;
+    }
+
+    /**
+     * Returns whether there is no collection on the given day, either because of a holiday or a leap day.
+     * @param epochDay day within this year
+     * @return {@code true} if collection is canceled
+     */
+    boolean isHoliday(final long epochDay) {
+        return holidays.get((int) (epochDay - firstEpochDay));
+    }
+
+    /**
+     * Returns whether collection on the given day is postponed by a day because of an earlier leap day.
+     * @param epochDay day within this year
+     * @return {@code true} if collection is postponed
+     */
+    boolean isLeapForward(final long epochDay) {
+        return leapForward.get((int) (epochDay - firstEpochDay));
+    }
+
+    /**
+     * Returns whether a bulk day is the given day or falls within the six days before it.
+     * @param epochDay day within this year
+     * @return {@code true} if the day is in a bulk week
+     */
+    boolean isBulkWeek(final long epochDay) {
+        return bulkWeeks.get((int) (epochDay - firstEpochDay));
+    }
+
+    /**
+     * Gets the first bulk day on or after the given day.
+     * @param epochDay day, which may be before this year
+     * @return bulk day within this year, or {@link Long#MAX_VALUE} if there are no more bulk days this year
+     */
+    long nextBulkDay(final long epochDay) {
+        if (epochDay > lastEpochDay) {
+            return Long.MAX_VALUE;
+        }
+        final int index = bulkDays.nextSetBit((int) (Math.max(epochDay, firstEpochDay) - firstEpochDay));
+        return index < 0 ? Long.MAX_VALUE : firstEpochDay + index;
+    }
+
+    /**
+     * Gets the last bulk day on or before the given day.
+     * @param epochDay day, which may be after this year
+     * @return bulk day within this year, or {@link Long#MIN_VALUE} if there are no earlier bulk days this year
+     */
+    long previousBulkDay(final long epochDay) {
+        if (epochDay < firstEpochDay) {
+            return Long.MIN_VALUE;
+        }
+        final int index = bulkDays.previousSetBit((int) (Math.min(epochDay, lastEpochDay) - firstEpochDay));
+        return index < 0 ? Long.MIN_VALUE : firstEpochDay + index;
+    }
+
+    /**
+     * Gets the first day on or after the given day on which collection is canceled or postponed.
+     * @param epochDay day within this year
+     * @return day within this year, or {@link Long#MAX_VALUE} if there are no more such days this year
+     */
+    long nextIrregularDay(final long epochDay) {
+        final int index = (int) (epochDay - firstEpochDay);
+        final int holiday = holidays.nextSetBit(index);
+        final int postponed = leapForward.nextSetBit(index);
+        if (holiday < 0 && postponed < 0) {
+            return Long.MAX_VALUE;
+        }
+        return firstEpochDay + (holiday < 0 || postponed >= 0 && postponed < holiday ? postponed : holiday);
+    }
+}
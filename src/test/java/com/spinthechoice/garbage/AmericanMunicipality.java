@@ -0,0 +1,20 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+class AmericanMunicipality {
+    // tests override only the settings they vary
+    static GlobalGarbageConfiguration.Builder builder() {
+        return GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-05-01"))
+                .setGarbageEnabled(true)
+                .setGarbageWeeks(2)
+                .setRecyclingEnabled(true)
+                .setRecyclingWeeks(3)
+                .setBulkDays(LocalDate.parse("2019-04-08"), LocalDate.parse("2019-12-30"))
+                .setHolidays(AmericanHolidays.newYearsEve(), AmericanHolidays.thanksgivingDayAfter())
+                .setLeapDays(AmericanHolidays.memorialDay(), AmericanHolidays.christmas(), AmericanHolidays.laborDay());
+    }
+}
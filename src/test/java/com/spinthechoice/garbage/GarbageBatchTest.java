@@ -0,0 +1,161 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class GarbageBatchTest {
+    private static final LocalDate FROM = LocalDate.parse("2019-03-01");
+    private static final LocalDate TO = LocalDate.parse("2020-03-01");
+
+    @Test
+    void testComputeMatchesGarbage() {
+        final GlobalGarbageConfiguration globalConfig = AmericanMunicipality.builder().build();
+        final List<UserGarbageConfiguration> users = users();
+        for (LocalDate date = FROM; date.isBefore(TO); date = date.plusDays(11)) {
+            final List<GarbageDay> actual = new GarbageBatch(globalConfig).compute(date, users);
+            for (int i = 0; i < users.size(); ++i) {
+                assertThat(code(actual.get(i)), is(code(new Garbage(globalConfig, users.get(i)).compute(date))));
+            }
+        }
+    }
+
+    @Test
+    void testComputeRangeMatchesGarbage() {
+        final GlobalGarbageConfiguration globalConfig = AmericanMunicipality.builder().build();
+        final Map<Integer, UserGarbageConfiguration> users = new HashMap<>();
+        for (final UserGarbageConfiguration user : users()) {
+            users.put(users.size(), user);
+        }
+        final Map<Integer, List<GarbageDay>> actual = new GarbageBatch(globalConfig, true).computeRange(FROM, TO, users);
+        assertThat(actual.keySet(), is(users.keySet()));
+        for (final Map.Entry<Integer, UserGarbageConfiguration> user : users.entrySet()) {
+            final List<String> expected = new Garbage(globalConfig, user.getValue()).computeRange(FROM, TO)
+                    .map(GarbageBatchTest::code)
+                    .collect(toList());
+            assertThat(actual.get(user.getKey()).stream().map(GarbageBatchTest::code).collect(toList()), is(expected));
+        }
+    }
+
+    @Test
+    void testScheduleClassesShareResults() {
+        final GarbageBatch classUnderTest = new GarbageBatch(AmericanMunicipality.builder().build(), true);
+        final List<UserGarbageConfiguration> users = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            users.add(new UserGarbageConfiguration(DayOfWeek.MONDAY, i % 2, 0));
+        }
+        final List<GarbageDay> actual = classUnderTest.compute(LocalDate.parse("2019-05-13"), users);
+        assertThat(actual.get(2), sameInstance(actual.get(0)));
+        assertThat(actual.get(3), sameInstance(actual.get(1)));
+        assertThat(actual.get(998), sameInstance(actual.get(0)));
+    }
+
+    @Test
+    void testCollectionsMatchGarbage() {
+        final GlobalGarbageConfiguration globalConfig = AmericanMunicipality.builder().build();
+        final GarbageBatch classUnderTest = new GarbageBatch(globalConfig);
+        for (LocalDate date = FROM; date.isBefore(TO); date = date.plusDays(1)) {
+            final DailyCollections collections = classUnderTest.collections(date);
+            for (final UserGarbageConfiguration user : users()) {
+                assertThat(code(collections.get(user)), is(code(new Garbage(globalConfig, user).compute(date))));
+            }
+        }
+    }
+
+    @Test
+    void testCollectionsByScheduleClass() {
+        final GarbageBatch classUnderTest = new GarbageBatch(AmericanMunicipality.builder().build());
+        // 7 days x (2 + 1) garbage weeks x (3 + 1) recycling weeks
+        assertThat(classUnderTest.getScheduleClassCount(), is(84));
+
+        // Monday of the second garbage week and the first recycling week
+        final DailyCollections collections = classUnderTest.collections(LocalDate.parse("2019-05-20"));
+        final BitSet garbage = collections.getGarbageClasses();
+        final BitSet recycling = collections.getRecyclingClasses();
+        assertThat(garbage.cardinality(), is(4));
+        assertThat(recycling.cardinality(), is(3));
+        assertThat(collections.getBulkClasses().isEmpty(), is(true));
+        final UserGarbageConfiguration user = new UserGarbageConfiguration(DayOfWeek.MONDAY, 1, 0);
+        assertThat(collections.getFlags(classUnderTest.indexOf(user)), is(GarbageDay.GARBAGE | GarbageDay.RECYCLING));
+        for (int index = garbage.nextSetBit(0); index >= 0; index = garbage.nextSetBit(index + 1)) {
+            assertThat(classUnderTest.getScheduleClass(index).getDayOfWeek(), is(DayOfWeek.MONDAY));
+            assertThat(classUnderTest.getScheduleClass(index).getGarbageWeek(), is(1));
+        }
+    }
+
+    @Test
+    void testForecastMatchesGarbage() {
+        final GlobalGarbageConfiguration globalConfig = AmericanMunicipality.builder().build();
+        final Map<UserGarbageConfiguration, Long> histogram = new HashMap<>();
+        for (final UserGarbageConfiguration user : users()) {
+            histogram.put(user, (long) histogram.size() + 1);
+        }
+        final List<DailyForecast> actual = new GarbageBatch(globalConfig).forecast(histogram, FROM, TO);
+        assertThat(actual.size(), is((int) FROM.until(TO, ChronoUnit.DAYS)));
+        for (final DailyForecast forecast : actual) {
+            long garbage = 0;
+            long recycling = 0;
+            long bulk = 0;
+            for (final Map.Entry<UserGarbageConfiguration, Long> entry : histogram.entrySet()) {
+                final GarbageDay day = new Garbage(globalConfig, entry.getKey()).compute(forecast.getDate());
+                garbage += day.isGarbageDay() ? entry.getValue() : 0;
+                recycling += day.isRecyclingDay() ? entry.getValue() : 0;
+                bulk += day.isBulkDay() ? entry.getValue() : 0;
+            }
+            assertThat(forecast.toString(), forecast.getGarbageStops(), is(garbage));
+            assertThat(forecast.toString(), forecast.getRecyclingStops(), is(recycling));
+            assertThat(forecast.toString(), forecast.getBulkStops(), is(bulk));
+        }
+    }
+
+    @Test
+    void testForecastShiftsAfterLeapDay() {
+        final Map<UserGarbageConfiguration, Long> histogram = new HashMap<>();
+        histogram.put(new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0), 10L);
+        histogram.put(new UserGarbageConfiguration(DayOfWeek.TUESDAY, 0, 0), 20L);
+        final List<DailyForecast> actual = new GarbageBatch(AmericanMunicipality.builder().build())
+                .forecast(histogram, LocalDate.parse("2019-05-27"), LocalDate.parse("2019-05-30"));
+        // Memorial Day is a leap day, so Monday moves to Tuesday and Tuesday to Wednesday
+        assertThat(actual.get(0).getGarbageStops(), is(0L));
+        assertThat(actual.get(1).getGarbageStops(), is(10L));
+        assertThat(actual.get(2).getGarbageStops(), is(20L));
+    }
+
+    @Test
+    void testComputeRangeEndBeforeStart() {
+        final GarbageBatch classUnderTest = new GarbageBatch(AmericanMunicipality.builder().build());
+        assertThrows(IllegalArgumentException.class,
+                () -> classUnderTest.computeRange(TO, FROM, new HashMap<String, UserGarbageConfiguration>()));
+    }
+
+    private static List<UserGarbageConfiguration> users() {
+        final List<UserGarbageConfiguration> users = new ArrayList<>();
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            for (int garbageWeek = -1; garbageWeek <= 2; ++garbageWeek) {
+                for (int recyclingWeek = -1; recyclingWeek <= 3; ++recyclingWeek) {
+                    users.add(new UserGarbageConfiguration(dayOfWeek, garbageWeek, recyclingWeek));
+                }
+            }
+        }
+        return users;
+    }
+
+    private static String code(final GarbageDay garbage) {
+        return garbage.getDate() + (garbage.isGarbageDay() ? "G" : "") + (garbage.isRecyclingDay() ? "R" : "") +
+                (garbage.isBulkDay() ? "B" : "");
+    }
+}
@@ -0,0 +1,147 @@
+package com.spinthechoice.garbage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class GarbageSnapshotTest {
+    private static final LocalDate FROM = LocalDate.parse("2017-11-01");
+    private static final LocalDate TO = LocalDate.parse("2022-02-01");
+
+    @Test
+    void testReadMatchesWritten() throws IOException {
+        final List<GlobalGarbageConfiguration> expected = Arrays.asList(monthlyConfig(), weeklyConfig());
+        final Path path = Files.createTempFile("garbage", ".snapshot");
+        try {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                GarbageSnapshot.write(expected, 2019, 2021, channel);
+            }
+            final List<GlobalGarbageConfiguration> actual = GarbageSnapshot.read(path);
+            assertThat(actual.size(), is(expected.size()));
+            for (int i = 0; i < expected.size(); ++i) {
+                assertSameSchedule(actual.get(i), expected.get(i));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testReadPreloadsCalendars() throws IOException {
+        final GlobalGarbageConfiguration expected = monthlyConfig();
+        final GlobalGarbageConfiguration actual = GarbageSnapshot.read(snapshot(expected, 2019, 2020)).get(0);
+        final YearCalendar calendar = actual.getCalendar().year(2019);
+        assertThat(calendar.getHolidays(), is(expected.getCalendar().year(2019).getHolidays()));
+        assertThat(calendar.getLeapForward(), is(expected.getCalendar().year(2019).getLeapForward()));
+        assertThat(calendar.getBulkWeeks(), is(expected.getCalendar().year(2019).getBulkWeeks()));
+    }
+
+    @Test
+    void testReadEmpty() throws IOException {
+        assertThat(GarbageSnapshot.read(snapshot(null, 2019, 2020)).isEmpty(), is(true));
+    }
+
+    @Test
+    void testReadNotSnapshot() {
+        assertThrows(IOException.class, () -> GarbageSnapshot.read(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 0, 1})));
+    }
+
+    @Test
+    void testReadTruncated() throws IOException {
+        final ByteBuffer snapshot = snapshot(monthlyConfig(), 2019, 2020);
+        snapshot.limit(snapshot.limit() - 1);
+        assertThrows(IOException.class, () -> GarbageSnapshot.read(snapshot));
+    }
+
+    @Test
+    void testReadCorrupt() throws IOException {
+        final ByteBuffer negativeCount = snapshot(monthlyConfig(), 2019, 2020);
+        // the number of configurations follows the magic number and version
+        negativeCount.putInt(Integer.BYTES + Short.BYTES, -5);
+        assertThrows(IOException.class, () -> GarbageSnapshot.read(negativeCount));
+
+        final ByteBuffer noDayOfWeek = snapshot(GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-05-01"))
+                .setHolidays(AmericanHolidays.thanksgiving())
+                .build(), 2019, 2020);
+        // the holiday's day of week follows the header, the configuration's settings, the holiday count,
+        // and the holiday's type, month and date
+        noDayOfWeek.put(10 + 18 + Integer.BYTES + 3, (byte) -1);
+        assertThrows(IOException.class, () -> GarbageSnapshot.read(noDayOfWeek));
+    }
+
+    @Test
+    void testWriteEndBeforeStart() {
+        assertThrows(IllegalArgumentException.class,
+                () -> GarbageSnapshot.write(Arrays.asList(monthlyConfig()), 2020, 2019, null));
+    }
+
+    private static void assertSameSchedule(final GlobalGarbageConfiguration actual,
+                                           final GlobalGarbageConfiguration expected) {
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            for (int week = -1; week <= 2; ++week) {
+                final UserGarbageConfiguration user = new UserGarbageConfiguration(dayOfWeek, week, week + 1);
+                assertThat(user.toString(), codes(new Garbage(actual, user)), is(codes(new Garbage(expected, user))));
+            }
+        }
+    }
+
+    private static List<String> codes(final Garbage garbage) {
+        return garbage.computeRange(FROM, TO)
+                .map(day -> day.getDate() + (day.isGarbageDay() ? "G" : "") + (day.isRecyclingDay() ? "R" : "") +
+                        (day.isBulkDay() ? "B" : ""))
+                .collect(toList());
+    }
+
+    private static ByteBuffer snapshot(final GlobalGarbageConfiguration config, final int fromYear,
+                                       final int toYear) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GarbageSnapshot.write(config == null ? Arrays.asList() : Arrays.asList(config), fromYear, toYear,
+                Channels.newChannel(out));
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static GlobalGarbageConfiguration monthlyConfig() {
+        return AmericanMunicipality.builder()
+                .setBulkSchedules(BulkSchedule.builder()
+                        .setType(BulkScheduleType.MONTHLY)
+                        .setDayOfWeek(DayOfWeek.MONDAY)
+                        .setWeekIndex(-1)
+                        .setExclusions(LocalDate.parse("2020-12-28"))
+                        .build())
+                .build();
+    }
+
+    private static GlobalGarbageConfiguration weeklyConfig() {
+        return GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SATURDAY)
+                .setStart(LocalDate.parse("2018-01-01"))
+                .setGarbageEnabled(true)
+                .setGarbageWeeks(1)
+                .setBulkSchedules(BulkSchedule.builder()
+                        .setType(BulkScheduleType.EVERY_N_WEEKS)
+                        .setStart(LocalDate.parse("2018-01-08"))
+                        .setWeeks(6)
+                        .build())
+                .setLeapDays(AmericanHolidays.christmas())
+                .build();
+    }
+}
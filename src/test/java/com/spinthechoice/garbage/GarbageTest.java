@@ -1,12 +1,29 @@
 package com.spinthechoice.garbage;
 
+import java.lang.management.ManagementFactory;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
+import com.sun.management.ThreadMXBean;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
 import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 class GarbageTest {
@@ -180,6 +197,86 @@ class GarbageTest {
         assertNoGarbage(result);
     }
 
+    @Test
+    void testHolidaysAcrossYears() {
+        final GlobalGarbageConfiguration globalConfig = GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-01-01"))
+                .setGarbageEnabled(true)
+                .setRecyclingEnabled(true)
+                .setHolidays(AmericanHolidays.christmas())
+                .build();
+        Garbage classUnderTest = new Garbage(globalConfig,
+                new UserGarbageConfiguration(DayOfWeek.FRIDAY, DEFAULT_WEEK, DEFAULT_WEEK));
+        assertGarbage(classUnderTest.compute(LocalDate.parse("2019-12-27")), "GR");
+        assertNoGarbage(classUnderTest.compute(LocalDate.parse("2020-12-25")));
+        assertGarbage(classUnderTest.compute(LocalDate.parse("2019-12-27")), "GR");
+        assertGarbage(classUnderTest.compute(LocalDate.parse("2020-12-18")), "GR");
+    }
+
+    @Test
+    void testLeapDayPostponesIntoNextYear() {
+        final GlobalGarbageConfiguration globalConfig = GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-01-01"))
+                .setGarbageEnabled(true)
+                .setRecyclingEnabled(true)
+                .setLeapDays(Holiday.builder()
+                        .setType(HolidayType.STATIC_DATE)
+                        .setMonth(Month.DECEMBER)
+                        .setDate(30)
+                        .build())
+                .build();
+        Garbage classUnderTest = new Garbage(globalConfig,
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, DEFAULT_WEEK, DEFAULT_WEEK));
+        assertNoGarbage(classUnderTest.compute(LocalDate.parse("2020-01-02")));
+        assertGarbage(classUnderTest.compute(LocalDate.parse("2020-01-03")), "GR");
+        assertNoGarbage(classUnderTest.compute(LocalDate.parse("2019-12-27")));
+        assertGarbage(classUnderTest.compute(LocalDate.parse("2019-12-26")), "GR");
+    }
+
+    @Test
+    void testSharedBetweenThreads() {
+        final GlobalGarbageConfiguration globalConfig = globalConfig(ALL_WEEKS);
+        final Garbage classUnderTest = new Garbage(globalConfig,
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, FIRST_WEEK, SECOND_WEEK));
+        final LocalDate start = LocalDate.parse("2015-01-01");
+
+        final List<String> expected = range(0, 3650)
+                .mapToObj(i -> code(new Garbage(globalConfig(ALL_WEEKS), new UserGarbageConfiguration(
+                        DayOfWeek.THURSDAY, FIRST_WEEK, SECOND_WEEK)).compute(start.plusDays(i))))
+                .collect(toList());
+        final List<String> actual = range(0, 3650).parallel()
+                .mapToObj(i -> code(classUnderTest.compute(start.plusDays(i))))
+                .collect(toList());
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    void testSharedBetweenThreadsInDifferentYears() {
+        final UserGarbageConfiguration user = new UserGarbageConfiguration(DayOfWeek.MONDAY, SECOND_WEEK, FIRST_WEEK);
+        final Garbage classUnderTest = new Garbage(globalConfig(ALL_WEEKS), user);
+        final LocalDate start = LocalDate.parse("1990-01-01");
+
+        // each thread walks its own decade, so threads never share a calendar window
+        final List<List<String>> expected = range(0, 8)
+                .mapToObj(i -> new Garbage(globalConfig(ALL_WEEKS), user)
+                        .computeRange(start.plusYears(10L * i), start.plusYears(10L * i + 10))
+                        .map(GarbageTest::code)
+                        .collect(toList()))
+                .collect(toList());
+        final List<List<String>> actual = range(0, 8).parallel()
+                .mapToObj(i -> classUnderTest.computeRange(start.plusYears(10L * i), start.plusYears(10L * i + 10))
+                        .map(GarbageTest::code)
+                        .collect(toList()))
+                .collect(toList());
+        assertThat(actual, is(expected));
+    }
+
+    private static String code(final GarbageDay garbage) {
+        return (garbage.isGarbageDay() ? "G" : "") + (garbage.isRecyclingDay() ? "R" : "") + (garbage.isBulkDay() ? "B" : "");
+    }
+
     @Test
     void testConfigWeekOverrides() {
         final GlobalGarbageConfiguration globalConfig = GlobalGarbageConfiguration.builder()
@@ -249,4 +346,298 @@ class GarbageTest {
         assertGarbage(classUnderTest.compute(LocalDate.parse("2019-04-14")), "B");
         assertNoGarbage(classUnderTest.compute(LocalDate.parse("2019-04-21")));
     }
+
+    @Test
+    void testComputeRange() {
+        Garbage classUnderTest = new Garbage(globalConfig(),
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, DEFAULT_WEEK, FIRST_WEEK));
+        final List<String> pickups = classUnderTest.computeRange(LocalDate.parse("2019-05-13"), LocalDate.parse("2019-06-08"))
+                .filter(day -> day.isGarbageDay() || day.isRecyclingDay() || day.isBulkDay())
+                .map(day -> day.getDate() + " " + code(day))
+                .collect(toList());
+        assertThat(pickups, contains("2019-05-16 GR", "2019-05-23 G", "2019-05-31 GR", "2019-06-06 G"));
+    }
+
+    @Test
+    void testComputeRangeMatchesCompute() {
+        final GlobalGarbageConfiguration globalConfig = AmericanMunicipality.builder()
+                .setGarbageWeeks(ALL_WEEKS)
+                .setRecyclingWeeks(ALL_WEEKS)
+                .setBulkDays(LocalDate.parse("2019-04-08"), LocalDate.parse("2019-12-30"), LocalDate.parse("2020-09-14"))
+                .build();
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            Garbage classUnderTest = new Garbage(globalConfig,
+                    new UserGarbageConfiguration(dayOfWeek, SECOND_WEEK, FIRST_WEEK));
+            final LocalDate start = LocalDate.parse("2019-03-01");
+            final List<String> expected = range(0, 800)
+                    .mapToObj(i -> code(classUnderTest.compute(start.plusDays(i))))
+                    .collect(toList());
+            final List<String> actual = classUnderTest.computeRange(start, start.plusDays(800))
+                    .map(GarbageTest::code)
+                    .collect(toList());
+            assertThat(actual, is(expected));
+        }
+    }
+
+    @Test
+    void testComputeRangeEndBeforeStart() {
+        Garbage classUnderTest = new Garbage(globalConfig(),
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, DEFAULT_WEEK, FIRST_WEEK));
+        assertThrows(IllegalArgumentException.class,
+                () -> classUnderTest.computeRange(LocalDate.parse("2019-05-13"), LocalDate.parse("2019-05-12")));
+    }
+
+    @Test
+    void testComputeRangeInParallel() {
+        Garbage classUnderTest = new Garbage(globalConfig(ALL_WEEKS),
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, SECOND_WEEK, FIRST_WEEK));
+        final LocalDate start = LocalDate.parse("2000-01-01");
+        final LocalDate end = LocalDate.parse("2050-01-01");
+        final List<String> expected = classUnderTest.computeRange(start, end)
+                .map(day -> day.getDate() + " " + code(day))
+                .collect(toList());
+        final List<String> actual = classUnderTest.computeRange(start, end)
+                .parallel()
+                .map(day -> day.getDate() + " " + code(day))
+                .collect(toList());
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    void testComputeRangeSplitsEvenly() {
+        Garbage classUnderTest = new Garbage(globalConfig(),
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, DEFAULT_WEEK, FIRST_WEEK));
+        final Spliterator<GarbageDay> suffix = classUnderTest.computeRange(
+                LocalDate.parse("2019-01-01"), LocalDate.parse("2020-01-01")).spliterator();
+        assertThat(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED), is(true));
+
+        final Spliterator<GarbageDay> prefix = suffix.trySplit();
+        assertThat(prefix.getExactSizeIfKnown(), is(182L));
+        assertThat(suffix.getExactSizeIfKnown(), is(183L));
+        suffix.tryAdvance(day -> assertThat(day.getDate(), is(LocalDate.parse("2019-07-02"))));
+    }
+
+    @Test
+    void testComputeFlags() {
+        final GlobalGarbageConfiguration globalConfig = GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-01-01"))
+                .setGarbageEnabled(true)
+                .setRecyclingEnabled(true)
+                .setRecyclingWeeks(ALL_WEEKS)
+                .setBulkDays(LocalDate.parse("2019-04-08"))
+                .build();
+        Garbage classUnderTest = new Garbage(globalConfig,
+                new UserGarbageConfiguration(DayOfWeek.MONDAY, DEFAULT_WEEK, SECOND_WEEK));
+        assertThat(classUnderTest.computeFlags(LocalDate.parse("2019-04-08").toEpochDay()),
+                is(GarbageDay.GARBAGE | GarbageDay.BULK));
+        assertThat(classUnderTest.computeFlags(LocalDate.parse("2019-04-15").toEpochDay()),
+                is(GarbageDay.GARBAGE | GarbageDay.RECYCLING));
+        assertThat(classUnderTest.computeFlags(LocalDate.parse("2019-04-16").toEpochDay()), is(0));
+    }
+
+    @Test
+    void testGarbageDayFlags() {
+        final LocalDate date = LocalDate.parse("2019-04-08");
+        final GarbageDay garbageDay = new GarbageDay(date, GarbageDay.GARBAGE | GarbageDay.BULK);
+        assertGarbage(garbageDay, "GB");
+        assertThat(garbageDay.getDate(), is(date));
+        assertThat(garbageDay.getFlags(), is(GarbageDay.GARBAGE | GarbageDay.BULK));
+        assertThat(new GarbageDay(date, false, true, false).getFlags(), is(GarbageDay.RECYCLING));
+    }
+
+    @Test
+    void testForEachDay() {
+        Garbage classUnderTest = new Garbage(globalConfig(ALL_WEEKS),
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, SECOND_WEEK, FIRST_WEEK));
+        final LocalDate start = LocalDate.parse("2018-12-01");
+        final LocalDate end = LocalDate.parse("2020-02-01");
+        final List<String> expected = classUnderTest.computeRange(start, end)
+                .map(day -> day.getDate() + " " + code(day))
+                .collect(toList());
+
+        final List<String> actual = new ArrayList<>();
+        classUnderTest.forEachDay(start, end, (epochDay, flags) ->
+                actual.add(LocalDate.ofEpochDay(epochDay) + " " + code(new GarbageDay(null, flags))));
+        assertThat(actual, is(expected));
+
+        final List<String> viewed = new ArrayList<>();
+        classUnderTest.forEachDay(start, end, new GarbageDayView(), view ->
+                viewed.add(view.getDate() + " " + code(view.toGarbageDay())));
+        assertThat(viewed, is(expected));
+    }
+
+    @Test
+    void testForEachDayDoesNotAllocatePerDay() {
+        final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        Garbage classUnderTest = new Garbage(globalConfig(ALL_WEEKS),
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, SECOND_WEEK, FIRST_WEEK));
+        final LocalDate start = LocalDate.parse("1990-01-01");
+        final LocalDate end = LocalDate.parse("2090-01-01");
+        final long days = end.toEpochDay() - start.toEpochDay();
+        final long[] pickups = new long[1];
+        final DaySink sink = (epochDay, flags) -> pickups[0] += flags & GarbageDay.GARBAGE;
+        final GarbageDayView view = new GarbageDayView();
+        final Consumer<GarbageDayView> action = day -> pickups[0] += day.getFlags() & GarbageDay.RECYCLING;
+
+        // resolve every year first
+        classUnderTest.forEachDay(start, end, sink);
+        classUnderTest.forEachDay(start, end, view, action);
+
+        final long threadId = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        classUnderTest.forEachDay(start, end, sink);
+        classUnderTest.forEachDay(start, end, view, action);
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // each walk allocates a little up front and when it moves to the next year, but never per day
+        assertThat(allocated, lessThan(days));
+    }
+
+    @Test
+    void testNextAndPreviousPickups() {
+        Garbage classUnderTest = new Garbage(globalConfig(),
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, DEFAULT_WEEK, FIRST_WEEK));
+        assertThat(classUnderTest.nextGarbageDay(LocalDate.parse("2019-05-16")), is(Optional.of(LocalDate.parse("2019-05-16"))));
+        assertThat(classUnderTest.nextGarbageDay(LocalDate.parse("2019-05-24")), is(Optional.of(LocalDate.parse("2019-05-31"))));
+        assertThat(classUnderTest.nextRecyclingDay(LocalDate.parse("2019-05-17")), is(Optional.of(LocalDate.parse("2019-05-31"))));
+        assertThat(classUnderTest.previousGarbageDay(LocalDate.parse("2019-05-30")), is(Optional.of(LocalDate.parse("2019-05-23"))));
+        assertThat(classUnderTest.previousRecyclingDay(LocalDate.parse("2019-05-30")), is(Optional.of(LocalDate.parse("2019-05-16"))));
+        assertThat(classUnderTest.nextBulkDay(LocalDate.parse("2019-05-30")), is(Optional.empty()));
+    }
+
+    @Test
+    void testNextAndPreviousBulkPickups() {
+        final GlobalGarbageConfiguration globalConfig = GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-01-01"))
+                .setBulkDays(LocalDate.parse("2019-04-08"), LocalDate.parse("2019-09-16"))
+                .build();
+        Garbage classUnderTest = new Garbage(globalConfig,
+                new UserGarbageConfiguration(DayOfWeek.SUNDAY, DEFAULT_WEEK, DEFAULT_WEEK));
+        assertThat(classUnderTest.nextBulkDay(LocalDate.parse("2019-04-01")), is(Optional.of(LocalDate.parse("2019-04-14"))));
+        assertThat(classUnderTest.nextBulkDay(LocalDate.parse("2019-04-15")), is(Optional.of(LocalDate.parse("2019-09-22"))));
+        assertThat(classUnderTest.nextBulkDay(LocalDate.parse("2019-09-23")), is(Optional.empty()));
+        assertThat(classUnderTest.previousBulkDay(LocalDate.parse("2019-09-21")), is(Optional.of(LocalDate.parse("2019-04-14"))));
+        assertThat(classUnderTest.previousBulkDay(LocalDate.parse("2019-04-13")), is(Optional.empty()));
+        assertThat(classUnderTest.nextGarbageDay(LocalDate.parse("2019-04-01")), is(Optional.empty()));
+    }
+
+    @Test
+    void testCountPickupsMatchesComputeRange() {
+        final GlobalGarbageConfiguration globalConfig = AmericanMunicipality.builder()
+                .setGarbageWeeks(ALL_WEEKS)
+                .setRecyclingWeeks(ALL_WEEKS)
+                .setBulkDays(LocalDate.parse("2019-04-08"), LocalDate.parse("2019-12-30"), LocalDate.parse("2020-09-14"))
+                .build();
+        final LocalDate from = LocalDate.parse("2019-03-01");
+        final LocalDate to = LocalDate.parse("2021-02-17");
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            Garbage classUnderTest = new Garbage(globalConfig,
+                    new UserGarbageConfiguration(dayOfWeek, SECOND_WEEK, FIRST_WEEK));
+            final List<GarbageDay> days = classUnderTest.computeRange(from, to).collect(toList());
+            assertThat(classUnderTest.countGarbageDays(from, to),
+                    is(days.stream().filter(GarbageDay::isGarbageDay).count()));
+            assertThat(classUnderTest.countRecyclingDays(from, to),
+                    is(days.stream().filter(GarbageDay::isRecyclingDay).count()));
+            assertThat(classUnderTest.countBulkDays(from, to),
+                    is(days.stream().filter(GarbageDay::isBulkDay).count()));
+        }
+    }
+
+    @Test
+    void testCountPickups() {
+        Garbage classUnderTest = new Garbage(globalConfig(),
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, DEFAULT_WEEK, FIRST_WEEK));
+        final LocalDate day = LocalDate.parse("2019-05-16");
+        assertThat(classUnderTest.countGarbageDays(day, day), is(0L));
+        assertThat(classUnderTest.countGarbageDays(day, day.plusDays(1)), is(1L));
+        assertThat(classUnderTest.countRecyclingDays(day, day.plusWeeks(4)), is(2L));
+        assertThrows(IllegalArgumentException.class, () -> classUnderTest.countGarbageDays(day, day.minusDays(1)));
+    }
+
+    @Test
+    void testBulkWeeksOverDecades() {
+        final Set<LocalDate> bulkDays = new HashSet<>();
+        for (LocalDate day = LocalDate.parse("2000-01-03"); day.getYear() < 2040; day = day.plusWeeks(5)) {
+            bulkDays.add(day);
+        }
+        final GlobalGarbageConfiguration globalConfig = GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-05-01"))
+                .setBulkDays(bulkDays)
+                .build();
+        Garbage classUnderTest = new Garbage(globalConfig,
+                new UserGarbageConfiguration(DayOfWeek.WEDNESDAY, DEFAULT_WEEK, DEFAULT_WEEK));
+        for (LocalDate day = LocalDate.parse("1999-12-01"); day.getYear() < 2041; day = day.plusDays(1)) {
+            final LocalDate date = day;
+            final boolean bulkWeek = range(0, 7).anyMatch(i -> bulkDays.contains(date.minusDays(i)));
+            final boolean expected = bulkWeek && date.getDayOfWeek() == DayOfWeek.WEDNESDAY;
+            assertThat(date.toString(), classUnderTest.compute(date).isBulkDay(), is(expected));
+        }
+    }
+
+    @Test
+    void testMonthlyBulkSchedule() {
+        final BulkSchedule firstFullWeek = BulkSchedule.builder()
+                .setType(BulkScheduleType.MONTHLY)
+                .setDayOfWeek(DayOfWeek.MONDAY)
+                .setWeekIndex(0)
+                .setExclusions(LocalDate.parse("2019-07-01"))
+                .build();
+        assertThat(firstFullWeek.toLocalDates(2019).subList(0, 7), contains(
+                LocalDate.parse("2019-01-07"),
+                LocalDate.parse("2019-02-04"),
+                LocalDate.parse("2019-03-04"),
+                LocalDate.parse("2019-04-01"),
+                LocalDate.parse("2019-05-06"),
+                LocalDate.parse("2019-06-03"),
+                LocalDate.parse("2019-08-05")));
+
+        final GlobalGarbageConfiguration globalConfig = GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-01-01"))
+                .setBulkSchedules(firstFullWeek)
+                .build();
+        Garbage classUnderTest = new Garbage(globalConfig,
+                new UserGarbageConfiguration(DayOfWeek.WEDNESDAY, DEFAULT_WEEK, DEFAULT_WEEK));
+        assertThat(classUnderTest.compute(LocalDate.parse("2019-06-05")).isBulkDay(), is(true));
+        assertThat(classUnderTest.compute(LocalDate.parse("2019-06-12")).isBulkDay(), is(false));
+        assertThat(classUnderTest.compute(LocalDate.parse("2019-07-03")).isBulkDay(), is(false));
+        assertThat(classUnderTest.nextBulkDay(LocalDate.parse("2019-06-06")), is(Optional.of(LocalDate.parse("2019-08-07"))));
+        assertThat(classUnderTest.countBulkDays(LocalDate.parse("2019-01-01"), LocalDate.parse("2049-01-01")), is(359L));
+    }
+
+    @Test
+    void testEveryNWeeksBulkScheduleWithExplicitDays() {
+        final GlobalGarbageConfiguration globalConfig = GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-01-01"))
+                .setBulkDays(LocalDate.parse("2019-03-04"))
+                .setBulkSchedules(BulkSchedule.builder()
+                        .setType(BulkScheduleType.EVERY_N_WEEKS)
+                        .setStart(LocalDate.parse("2019-12-23"))
+                        .setWeeks(6)
+                        .build())
+                .build();
+        Garbage classUnderTest = new Garbage(globalConfig,
+                new UserGarbageConfiguration(DayOfWeek.THURSDAY, DEFAULT_WEEK, DEFAULT_WEEK));
+        assertThat(classUnderTest.nextBulkDay(LocalDate.parse("2019-01-01")), is(Optional.of(LocalDate.parse("2019-03-07"))));
+        assertThat(classUnderTest.nextBulkDay(LocalDate.parse("2019-03-08")), is(Optional.of(LocalDate.parse("2019-12-26"))));
+        assertThat(classUnderTest.nextBulkDay(LocalDate.parse("2019-12-27")), is(Optional.of(LocalDate.parse("2020-02-06"))));
+        assertThat(classUnderTest.previousBulkDay(LocalDate.parse("2019-12-25")), is(Optional.of(LocalDate.parse("2019-03-07"))));
+    }
+
+    @Test
+    void testBulkScheduleRequiresSettings() {
+        assertThrows(IllegalStateException.class, () -> BulkSchedule.builder()
+                .setType(BulkScheduleType.EVERY_N_WEEKS)
+                .setStart(LocalDate.parse("2019-12-23"))
+                .build());
+        assertThrows(IllegalStateException.class, () -> BulkSchedule.builder()
+                .setType(BulkScheduleType.MONTHLY)
+                .build());
+    }
 }
@@ -3,12 +3,21 @@ package com.spinthechoice.garbage;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.HashSet;
+import java.util.NavigableSet;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
+import static java.util.Arrays.asList;
+import static java.util.Arrays.stream;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class HolidaysTest {
     @Test
@@ -95,4 +104,133 @@ class HolidaysTest {
         final Set<LocalDate> dates = holidays.dates(2020);
         assertThat(dates, hasSize(0));
     }
+
+    @Test
+    void testNegativeWeekIndexBeyondMonth() {
+        final Holidays holidays = new Holidays(Holiday.builder()
+                .setType(HolidayType.NTH_DAY_OF_WEEK)
+                .setMonth(Month.FEBRUARY)
+                .setDayOfWeek(DayOfWeek.SUNDAY)
+                .setWeekIndex(-6)
+                .build());
+
+        final Set<LocalDate> dates = holidays.dates(2020);
+        assertThat(dates, hasSize(0));
+    }
+
+    @Test
+    void testCompiledRulesOverYears() {
+        final HolidayRules rules = HolidayRules.compile(asList(
+                AmericanHolidays.newYearsEve(),
+                AmericanHolidays.memorialDay(),
+                AmericanHolidays.thanksgivingDayAfter()));
+
+        final long[] days = rules.epochDays(2019, 2021);
+        assertThat(stream(days).mapToObj(LocalDate::ofEpochDay).collect(toList()), contains(
+                LocalDate.parse("2019-05-27"),
+                LocalDate.parse("2019-11-29"),
+                LocalDate.parse("2019-12-31"),
+                LocalDate.parse("2020-05-25"),
+                LocalDate.parse("2020-11-27"),
+                LocalDate.parse("2020-12-31")));
+        assertThat(rules.epochDays(2021, 2019).length, is(0));
+    }
+
+    @Test
+    void testCompiledRulesRequireDayOfWeek() {
+        final Holiday holiday = Holiday.builder()
+                .setType(HolidayType.NTH_DAY_OF_WEEK)
+                .setMonth(Month.NOVEMBER)
+                .setWeekIndex(3)
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> HolidayRules.compile(asList(holiday)));
+    }
+
+    @Test
+    void testCompiledRulesMatchHolidayTypes() {
+        final Set<Holiday> definitions = new HashSet<>(asList(
+                AmericanHolidays.newYearsEve(),
+                AmericanHolidays.newYears(),
+                AmericanHolidays.memorialDay(),
+                AmericanHolidays.laborDay(),
+                AmericanHolidays.thanksgiving(),
+                AmericanHolidays.thanksgivingDayAfter(),
+                AmericanHolidays.christmas()));
+        final HolidayRules rules = HolidayRules.compile(definitions);
+        for (int year = 1900; year < 2100; ++year) {
+            final int y = year;
+            final Set<LocalDate> expected = definitions.stream()
+                    .flatMap(holiday -> IntStream.rangeClosed(y - 1, y + 1)
+                            .mapToObj(resolved -> holiday.getType().toLocalDate(holiday, resolved)))
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .filter(date -> date.getYear() == y)
+                    .collect(toSet());
+            final Set<LocalDate> actual = stream(rules.epochDays(year)).mapToObj(LocalDate::ofEpochDay).collect(toSet());
+            assertThat(actual, is(expected));
+            assertThat(actual.size(), is(rules.epochDays(year).length));
+        }
+    }
+
+    @Test
+    void testCalendarRemembersRecentYears() {
+        final HolidayCalendar calendar = new HolidayCalendar(
+                new Holidays(AmericanHolidays.memorialDay(), AmericanHolidays.christmas()), 2);
+
+        assertThat(calendar.epochDays(2019).length, is(2));
+        assertThat(calendar.epochDays(2019).length, is(2));
+        assertThat(calendar.epochDays(2020).length, is(2));
+        assertThat(calendar.epochDays(2021).length, is(2));
+        assertThat(calendar.getHitCount(), is(1L));
+        assertThat(calendar.getMissCount(), is(3L));
+        assertThat(calendar.size(), is(2));
+
+        // 2019 was evicted
+        calendar.epochDays(2019);
+        assertThat(calendar.getMissCount(), is(4L));
+    }
+
+    @Test
+    void testCalendarRanges() {
+        final HolidayCalendar calendar = new HolidayCalendar(
+                new Holidays(AmericanHolidays.memorialDay(), AmericanHolidays.christmas()), 10);
+
+        final long[] days = calendar.epochDays(2019, 2021);
+        assertThat(stream(days).mapToObj(LocalDate::ofEpochDay).collect(toList()), contains(
+                LocalDate.parse("2019-05-27"),
+                LocalDate.parse("2019-12-25"),
+                LocalDate.parse("2020-05-25"),
+                LocalDate.parse("2020-12-25")));
+
+        final NavigableSet<LocalDate> dates = calendar.dates(2019, 2021);
+        assertThat(dates.higher(LocalDate.parse("2019-12-25")), is(LocalDate.parse("2020-05-25")));
+        assertThat(dates.floor(LocalDate.parse("2020-01-01")), is(LocalDate.parse("2019-12-25")));
+    }
+
+    @Test
+    void testCalendarNextAndPrevious() {
+        final HolidayCalendar calendar = new HolidayCalendar(
+                new Holidays(AmericanHolidays.memorialDay(), AmericanHolidays.christmas()), 10);
+
+        assertThat(calendar.next(LocalDate.parse("2019-12-25")), is(Optional.of(LocalDate.parse("2020-05-25"))));
+        assertThat(calendar.next(LocalDate.parse("2019-12-24")), is(Optional.of(LocalDate.parse("2019-12-25"))));
+        assertThat(calendar.previous(LocalDate.parse("2020-05-25")), is(Optional.of(LocalDate.parse("2019-12-25"))));
+        assertThat(new HolidayCalendar(new Holidays(), 10).next(LocalDate.parse("2019-12-25")), is(Optional.empty()));
+    }
+
+    @Test
+    void testCalendarHolidaysThatNeverOccur() {
+        final HolidayCalendar calendar = new HolidayCalendar(new Holidays(Holiday.builder()
+                .setType(HolidayType.STATIC_DATE)
+                .setMonth(Month.FEBRUARY)
+                .setDate(30)
+                .build()), 2);
+        calendar.epochDays(2019);
+
+        assertThat(calendar.next(LocalDate.parse("2019-12-25")), is(Optional.empty()));
+        assertThat(calendar.previous(LocalDate.parse("2019-12-25")), is(Optional.empty()));
+        // the search gives up without resolving years, so remembered years are kept
+        assertThat(calendar.getMissCount(), is(1L));
+        assertThat(calendar.size(), is(1));
+    }
 }
@@ -0,0 +1,174 @@
+package com.spinthechoice.garbage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static java.util.stream.Collectors.toCollection;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ICalendarExporterTest {
+    private static final LocalDate FROM = LocalDate.parse("2019-03-01");
+    private static final LocalDate TO = LocalDate.parse("2020-03-01");
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2019-06-01T12:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void testEventsMatchGarbage() throws IOException {
+        final GlobalGarbageConfiguration globalConfig = AmericanMunicipality.builder().build();
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            for (int garbageWeek = -1; garbageWeek <= 2; ++garbageWeek) {
+                for (int recyclingWeek = -1; recyclingWeek <= 3; ++recyclingWeek) {
+                    final Garbage garbage = new Garbage(globalConfig,
+                            new UserGarbageConfiguration(dayOfWeek, garbageWeek, recyclingWeek));
+                    final Map<String, TreeSet<LocalDate>> actual = expand(export(garbage, FROM, TO));
+                    assertThat(actual.get("Garbage"), is(expected(garbage, GarbageDay::isGarbageDay)));
+                    assertThat(actual.get("Recycling"), is(expected(garbage, GarbageDay::isRecyclingDay)));
+                    assertThat(actual.get("Bulk garbage"), is(expected(garbage, GarbageDay::isBulkDay)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testHolidaysAreExcluded() throws IOException {
+        final Garbage garbage = new Garbage(AmericanMunicipality.builder().build(),
+                new UserGarbageConfiguration(DayOfWeek.TUESDAY, 1, -1));
+        final String actual = export(garbage, LocalDate.parse("2019-12-01"), LocalDate.parse("2020-01-01"));
+        // New Year's Eve is a holiday
+        assertThat(actual.contains("RRULE:FREQ=WEEKLY;INTERVAL=2;UNTIL=20191231\r\n"), is(true));
+        assertThat(actual.contains("EXDATE;VALUE=DATE:20191231\r\n"), is(true));
+        assertThat(actual.contains("RDATE"), is(false));
+    }
+
+    @Test
+    void testLeapDaysAreAdded() throws IOException {
+        final Garbage garbage = new Garbage(AmericanMunicipality.builder().build(),
+                new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, -1));
+        final String actual = export(garbage, LocalDate.parse("2019-05-20"), LocalDate.parse("2019-06-10"));
+        // Memorial Day is a leap day, so Monday's collection moves to Tuesday
+        assertThat(actual.contains("DTSTART;VALUE=DATE:20190527\r\n"), is(true));
+        assertThat(actual.contains("EXDATE;VALUE=DATE:20190527\r\n"), is(true));
+        assertThat(actual.contains("RDATE;VALUE=DATE:20190528\r\n"), is(true));
+    }
+
+    @Test
+    void testDaysBefore1970() throws IOException {
+        final Garbage garbage = new Garbage(AmericanMunicipality.builder().build(),
+                new UserGarbageConfiguration(DayOfWeek.TUESDAY, 1, -1));
+        final String actual = export(garbage, LocalDate.parse("1969-12-01"), LocalDate.parse("1970-01-01"));
+        // every week before the start date is the customer's week
+        assertThat(actual.contains("DTSTART;VALUE=DATE:19691202\r\n"), is(true));
+        assertThat(actual.contains("RRULE:FREQ=WEEKLY;INTERVAL=1;UNTIL=19691231\r\n"), is(true));
+    }
+
+    @Test
+    void testLinesAreFolded() throws IOException {
+        final Garbage garbage = new Garbage(AmericanMunicipality.builder().build(),
+                new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0));
+        final String actual = export(garbage, FROM, TO);
+        assertThat(actual.startsWith("BEGIN:VCALENDAR\r\n"), is(true));
+        assertThat(actual.endsWith("END:VCALENDAR\r\n"), is(true));
+        assertThat(actual.contains("DTSTAMP:20190601T120000Z\r\n"), is(true));
+        assertThat(actual.replace("\r\n", "").contains("\n"), is(false));
+        for (final String line : actual.split("\r\n")) {
+            assertThat(line, line.getBytes(StandardCharsets.UTF_8).length <= 75, is(true));
+        }
+    }
+
+    @Test
+    void testWriteToChannel() throws IOException {
+        final Garbage garbage = new Garbage(AmericanMunicipality.builder().build(),
+                new UserGarbageConfiguration(DayOfWeek.FRIDAY, 1, 2));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ICalendarExporter(garbage, CLOCK).write(FROM, TO, Channels.newChannel(out));
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is(export(garbage, FROM, TO)));
+    }
+
+    @Test
+    void testEndBeforeStart() {
+        final ICalendarExporter classUnderTest = new ICalendarExporter(new Garbage(
+                AmericanMunicipality.builder().build(), new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> classUnderTest.write(TO, FROM, new ByteArrayOutputStream()));
+    }
+
+    private static String export(final Garbage garbage, final LocalDate from, final LocalDate to) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ICalendarExporter(garbage, CLOCK).write(from, to, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static TreeSet<LocalDate> expected(final Garbage garbage,
+                                               final Predicate<GarbageDay> kind) {
+        return garbage.computeRange(FROM, TO)
+                .filter(kind)
+                .map(GarbageDay::getDate)
+                .collect(toCollection(TreeSet::new));
+    }
+
+    /**
+     * Expands the events of a feed into their days, by summary.
+     * Only the properties the exporter writes are understood.
+     */
+    private static Map<String, TreeSet<LocalDate>> expand(final String calendar) {
+        final Map<String, TreeSet<LocalDate>> events = new HashMap<>();
+        events.put("Garbage", new TreeSet<>());
+        events.put("Recycling", new TreeSet<>());
+        events.put("Bulk garbage", new TreeSet<>());
+
+        final String[] lines = calendar.replace("\r\n ", "").split("\r\n");
+        LocalDate start = null;
+        String rule = null;
+        TreeSet<LocalDate> days = new TreeSet<>();
+        final TreeSet<LocalDate> excluded = new TreeSet<>();
+        for (final String line : lines) {
+            final String value = line.substring(line.indexOf(':') + 1);
+            if (line.equals("BEGIN:VEVENT")) {
+                start = null;
+                rule = null;
+                days = new TreeSet<>();
+                excluded.clear();
+            } else if (line.startsWith("DTSTART")) {
+                start = date(value);
+            } else if (line.startsWith("RRULE")) {
+                rule = value;
+            } else if (line.startsWith("EXDATE")) {
+                Arrays.stream(value.split(",")).map(ICalendarExporterTest::date).forEach(excluded::add);
+            } else if (line.startsWith("RDATE")) {
+                Arrays.stream(value.split(",")).map(ICalendarExporterTest::date).forEach(days::add);
+            } else if (line.startsWith("SUMMARY")) {
+                days.add(start);
+                if (rule != null) {
+                    final int interval = Integer.parseInt(rule.replaceAll(".*INTERVAL=(\\d+).*", "$1"));
+                    final LocalDate until = date(rule.replaceAll(".*UNTIL=(\\d+).*", "$1"));
+                    for (LocalDate day = start; !day.isAfter(until); day = day.plusWeeks(interval)) {
+                        days.add(day);
+                    }
+                }
+                days.removeAll(excluded);
+                events.get(value).addAll(days);
+            }
+        }
+        return events;
+    }
+
+    private static LocalDate date(final String value) {
+        return LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
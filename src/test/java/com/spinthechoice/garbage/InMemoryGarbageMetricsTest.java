@@ -0,0 +1,138 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class InMemoryGarbageMetricsTest {
+    @Test
+    void testComputeIsRecorded() {
+        final InMemoryGarbageMetrics metrics = new InMemoryGarbageMetrics();
+        final Garbage garbage = new Garbage(AmericanMunicipality.builder().build(),
+                new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0));
+        GarbageInstrumentation.install(metrics);
+        try {
+            garbage.compute(LocalDate.parse("2019-05-13"));
+            garbage.compute(LocalDate.parse("2019-05-14"));
+            garbage.forEachDay(LocalDate.parse("2019-05-01"), LocalDate.parse("2019-06-01"), (epochDay, flags) -> { });
+        } finally {
+            GarbageInstrumentation.uninstall();
+        }
+
+        assertThat(metrics.getComputeLatency().getCount(), is(2L));
+        assertThat(metrics.getRangeLatency().getCount(), is(1L));
+        assertThat(metrics.getRangeDays(), is(31L));
+        // the window resolves 2018, 2019 and 2020
+        assertThat(metrics.getYearCacheMisses(), is(3L));
+        assertThat(metrics.getYearResolveLatency().getCount(), is(3L));
+        // each year resolves its holidays and the leap days of it and the year before,
+        // and each rule is resolved for the year before and after, too
+        assertThat(metrics.getHolidayResolutions(HolidayType.STATIC_DATE), is(3L * (1 + 2) * 3));
+        assertThat(metrics.getHolidayResolutions(HolidayType.NTH_DAY_OF_WEEK), is(3L * (1 + 2 * 2) * 3));
+        assertThat(metrics.getHolidayResolveLatency().getCount(), is(6L));
+    }
+
+    @Test
+    void testComputeRangeIsRecorded() {
+        final InMemoryGarbageMetrics metrics = new InMemoryGarbageMetrics();
+        final Garbage garbage = new Garbage(AmericanMunicipality.builder().build(),
+                new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0));
+        GarbageInstrumentation.install(metrics);
+        try {
+            garbage.computeRange(LocalDate.parse("2019-05-01"), LocalDate.parse("2019-06-01")).forEach(day -> { });
+            garbage.computeRange(LocalDate.parse("2019-05-01"), LocalDate.parse("2019-06-01")).iterator()
+                    .forEachRemaining(day -> { });
+            garbage.computeRange(LocalDate.parse("2019-01-01"), LocalDate.parse("2020-01-01")).parallel()
+                    .forEach(day -> { });
+        } finally {
+            GarbageInstrumentation.uninstall();
+        }
+
+        assertThat(metrics.getRangeDays(), is(31L + 31L + 365L));
+        assertThat(metrics.getRangeLatency().getCount() >= 3L, is(true));
+    }
+
+    @Test
+    void testCacheHitsAreRecorded() {
+        final InMemoryGarbageMetrics metrics = new InMemoryGarbageMetrics();
+        final GlobalGarbageConfiguration globalConfig = AmericanMunicipality.builder().build();
+        globalConfig.getCalendar().year(2019);
+        GarbageInstrumentation.install(metrics);
+        try {
+            globalConfig.getCalendar().year(2019);
+            globalConfig.getCalendar().year(2020);
+        } finally {
+            GarbageInstrumentation.uninstall();
+        }
+
+        assertThat(metrics.getYearCacheHits(), is(1L));
+        assertThat(metrics.getYearCacheMisses(), is(1L));
+    }
+
+    @Test
+    void testBulkDayProbesAreRecorded() {
+        final InMemoryGarbageMetrics metrics = new InMemoryGarbageMetrics();
+        final Garbage garbage = new Garbage(AmericanMunicipality.builder().build(),
+                new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0));
+        GarbageInstrumentation.install(metrics);
+        try {
+            garbage.nextBulkDay(LocalDate.parse("2019-01-01"));
+        } finally {
+            GarbageInstrumentation.uninstall();
+        }
+
+        assertThat(metrics.getBulkDayProbes() > 0, is(true));
+    }
+
+    @Test
+    void testScheduledBulkDaysReuseResolvedYears() {
+        final InMemoryGarbageMetrics metrics = new InMemoryGarbageMetrics();
+        final GlobalGarbageConfiguration globalConfig = GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-01-01"))
+                .setBulkSchedules(BulkSchedule.builder()
+                        .setType(BulkScheduleType.MONTHLY)
+                        .setDayOfWeek(DayOfWeek.MONDAY)
+                        .setWeekIndex(0)
+                        .build())
+                .build();
+        final Garbage garbage = new Garbage(globalConfig, new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0));
+        garbage.nextBulkDay(LocalDate.parse("2019-12-10"));
+        GarbageInstrumentation.install(metrics);
+        try {
+            assertThat(garbage.nextBulkDay(LocalDate.parse("2019-12-10")), is(Optional.of(LocalDate.parse("2020-01-06"))));
+            assertThat(garbage.previousBulkDay(LocalDate.parse("2020-01-05")),
+                    is(Optional.of(LocalDate.parse("2019-12-02"))));
+        } finally {
+            GarbageInstrumentation.uninstall();
+        }
+
+        assertThat(metrics.getYearCacheMisses(), is(0L));
+        assertThat(metrics.getYearCacheHits() > 0, is(true));
+    }
+
+    @Test
+    void testNothingIsRecordedAfterUninstall() {
+        final InMemoryGarbageMetrics metrics = new InMemoryGarbageMetrics();
+        GarbageInstrumentation.install(metrics);
+        GarbageInstrumentation.uninstall();
+        new Garbage(AmericanMunicipality.builder().build(), new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0))
+                .compute(LocalDate.parse("2019-05-13"));
+
+        assertThat(GarbageInstrumentation.getMetrics().isEnabled(), is(false));
+        assertThat(metrics.getComputeLatency().getCount(), is(0L));
+        assertThat(metrics.getYearCacheMisses(), is(0L));
+    }
+
+    @Test
+    void testInstallNull() {
+        assertThrows(IllegalArgumentException.class, () -> GarbageInstrumentation.install(null));
+    }
+}
@@ -0,0 +1,59 @@
+package com.spinthechoice.garbage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class LatencyHistogramTest {
+    @Test
+    void testPercentiles() {
+        final LatencyHistogram classUnderTest = new LatencyHistogram();
+        for (long value = 1; value <= 1000; ++value) {
+            classUnderTest.record(value);
+        }
+        assertThat(classUnderTest.getCount(), is(1000L));
+        assertThat(classUnderTest.getMean(), is(500.5));
+        assertThat(classUnderTest.getMax(), is(1000L));
+        assertThat(classUnderTest.getPercentile(0.0), is(1L));
+        assertThat(classUnderTest.getPercentile(100.0), is(1000L));
+        // buckets are at most 12.5% wide
+        assertThat(classUnderTest.getPercentile(50.0) >= 500L, is(true));
+        assertThat(classUnderTest.getPercentile(50.0) <= 500L * 9 / 8, is(true));
+        assertThat(classUnderTest.getPercentile(99.0) >= 990L, is(true));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        final LatencyHistogram classUnderTest = new LatencyHistogram();
+        classUnderTest.record(3);
+        classUnderTest.record(7);
+        classUnderTest.record(-1);
+        assertThat(classUnderTest.getPercentile(30.0), is(0L));
+        assertThat(classUnderTest.getPercentile(60.0), is(3L));
+        assertThat(classUnderTest.getPercentile(90.0), is(7L));
+    }
+
+    @Test
+    void testBuckets() {
+        for (long value : new long[] {0, 15, 16, 17, 100, 1000, 123456789, Long.MAX_VALUE}) {
+            final int bucket = LatencyHistogram.bucketOf(value);
+            assertThat(Long.toString(value), LatencyHistogram.highestValueOf(bucket) >= value, is(true));
+            assertThat(Long.toString(value), bucket == 0 || LatencyHistogram.highestValueOf(bucket - 1) < value, is(true));
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        final LatencyHistogram classUnderTest = new LatencyHistogram();
+        assertThat(classUnderTest.getPercentile(99.0), is(0L));
+        assertThat(classUnderTest.getMean(), is(0.0));
+    }
+
+    @Test
+    void testPercentileOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().getPercentile(101.0));
+    }
+}
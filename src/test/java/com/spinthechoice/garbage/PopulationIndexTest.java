@@ -0,0 +1,126 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class PopulationIndexTest {
+    private static final int CUSTOMERS = 2000;
+
+    @Test
+    void testCustomersMatchGarbage() {
+        final GlobalGarbageConfiguration globalConfig = globalConfig();
+        final PopulationIndex<Integer> classUnderTest = new PopulationIndex<>(globalConfig);
+        for (int id = 0; id < CUSTOMERS; ++id) {
+            classUnderTest.put(id, user(id));
+        }
+        assertThat(classUnderTest.size(), is(CUSTOMERS));
+
+        for (LocalDate date = LocalDate.parse("2019-04-01"); date.isBefore(LocalDate.parse("2019-07-01")); date = date.plusDays(1)) {
+            final LocalDate day = date;
+            assertThat(classUnderTest.getCustomers(date).collect(toSet()), is(expected(globalConfig, day, 0, CUSTOMERS,
+                    GarbageDay.GARBAGE | GarbageDay.RECYCLING | GarbageDay.BULK)));
+            assertThat(classUnderTest.getCustomers(date, GarbageDay.RECYCLING).collect(toSet()),
+                    is(expected(globalConfig, day, 0, CUSTOMERS, GarbageDay.RECYCLING)));
+        }
+    }
+
+    @Test
+    void testMoveAndRemove() {
+        final PopulationIndex<String> classUnderTest = new PopulationIndex<>(globalConfig());
+        final LocalDate monday = LocalDate.parse("2019-05-13");
+        classUnderTest.put("a", new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0));
+        assertThat(classUnderTest.getCustomers(monday).collect(toSet()), is(singleton("a")));
+
+        classUnderTest.put("a", new UserGarbageConfiguration(DayOfWeek.TUESDAY, 0, 0));
+        assertThat(classUnderTest.getCustomers(monday).count(), is(0L));
+        assertThat(classUnderTest.getCustomers(monday.plusDays(1)).collect(toSet()), is(singleton("a")));
+        assertThat(classUnderTest.get("a"), is(Optional.of(new UserGarbageConfiguration(DayOfWeek.TUESDAY, 0, 0))));
+
+        classUnderTest.put("b", new UserGarbageConfiguration(DayOfWeek.TUESDAY, 0, 0));
+        assertThat(classUnderTest.getHistogram(),
+                is(singletonMap(new UserGarbageConfiguration(DayOfWeek.TUESDAY, 0, 0), 2L)));
+        classUnderTest.remove("b");
+
+        assertThat(classUnderTest.remove("a"), is(true));
+        assertThat(classUnderTest.remove("a"), is(false));
+        assertThat(classUnderTest.getCustomers(monday.plusDays(1)).count(), is(0L));
+        assertThat(classUnderTest.size(), is(0));
+    }
+
+    @Test
+    void testUpdatesConcurrentWithReaders() throws Exception {
+        final GlobalGarbageConfiguration globalConfig = globalConfig();
+        final PopulationIndex<Integer> classUnderTest = new PopulationIndex<>(globalConfig);
+        final LocalDate date = LocalDate.parse("2019-05-16");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; ++thread) {
+                final int first = thread * CUSTOMERS;
+                futures.add(executor.submit(() -> {
+                    for (int id = first; id < first + CUSTOMERS; ++id) {
+                        classUnderTest.put(id, user(id));
+                        classUnderTest.getCustomers(date).count();
+                        if (id % 3 == 0) {
+                            classUnderTest.remove(id);
+                        }
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final Set<Integer> expected = expected(globalConfig, date, 0, 4 * CUSTOMERS,
+                GarbageDay.GARBAGE | GarbageDay.RECYCLING | GarbageDay.BULK).stream()
+                .filter(id -> id % 3 != 0)
+                .collect(toSet());
+        assertThat(classUnderTest.getCustomers(date).collect(toSet()), is(expected));
+    }
+
+    private static Set<Integer> expected(final GlobalGarbageConfiguration globalConfig, final LocalDate date,
+                                         final int from, final int to, final int flags) {
+        return IntStream.range(from, to)
+                .filter(id -> (new Garbage(globalConfig, user(id)).compute(date).getFlags() & flags) != 0)
+                .boxed()
+                .collect(Collectors.toSet());
+    }
+
+    private static UserGarbageConfiguration user(final int id) {
+        return new UserGarbageConfiguration(DayOfWeek.of(1 + id % 7), id / 7 % 2, id / 14 % 3);
+    }
+
+    private static GlobalGarbageConfiguration globalConfig() {
+        return GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-05-01"))
+                .setGarbageEnabled(true)
+                .setGarbageWeeks(2)
+                .setRecyclingEnabled(true)
+                .setRecyclingWeeks(3)
+                .setBulkDays(LocalDate.parse("2019-04-08"))
+                .setLeapDays(AmericanHolidays.memorialDay())
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ReminderPipelineTest {
+    private static final LocalDate DATE = LocalDate.parse("2019-05-16");
+
+    @Test
+    void testRemindsEveryoneCollected() throws InterruptedException {
+        final GlobalGarbageConfiguration globalConfig = globalConfig();
+        final PopulationIndex<Integer> population = population(globalConfig, 5000);
+        final InMemorySink sink = new InMemorySink();
+        final ReminderReport report = ReminderPipeline.<Integer>builder()
+                .setBatchSize(100)
+                .setQueueCapacity(2)
+                .setSink(sink)
+                .build()
+                .run(population, DATE);
+
+        assertThat(sink.reminders.keySet(), is(population.getCustomers(DATE).collect(toSet())));
+        for (final Map.Entry<Integer, GarbageDay> reminder : sink.reminders.entrySet()) {
+            final Garbage garbage = new Garbage(globalConfig, population.get(reminder.getKey()).get());
+            assertThat(reminder.getValue().getFlags(), is(garbage.compute(DATE).getFlags()));
+        }
+        assertThat(report.getReminderCount(), is((long) sink.reminders.size()));
+        assertThat(report.getBatchCount(), is(sink.batchSizes.size()));
+        assertThat(report.getBatchLatencies().length, is(report.getBatchCount()));
+        for (final int batchSize : sink.batchSizes) {
+            assertThat(batchSize, lessThanOrEqualTo(100));
+        }
+    }
+
+    @Test
+    void testSlowSinkHoldsBackProducer() throws InterruptedException {
+        final PopulationIndex<Integer> population = population(globalConfig(), 5000);
+        final AtomicInteger delivered = new AtomicInteger();
+        final ReminderReport report = ReminderPipeline.<Integer>builder()
+                .setBatchSize(10)
+                .setQueueCapacity(1)
+                .setSink(reminders -> {
+                    delivered.incrementAndGet();
+                    try {
+                        Thread.sleep(1);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .build()
+                .run(population, DATE);
+        assertThat(delivered.get(), is(report.getBatchCount()));
+        assertThat(report.getMaxBatchLatency().toNanos() > 0, is(true));
+    }
+
+    @Test
+    void testSinkFailure() {
+        final ReminderPipeline<Integer> classUnderTest = ReminderPipeline.<Integer>builder()
+                .setBatchSize(10)
+                .setQueueCapacity(1)
+                .setSink(reminders -> {
+                    throw new IllegalArgumentException("unreachable");
+                })
+                .build();
+        assertThrows(IllegalStateException.class, () -> classUnderTest.run(population(globalConfig(), 5000), DATE));
+    }
+
+    @Test
+    void testSinkRequired() {
+        assertThrows(IllegalStateException.class, () -> ReminderPipeline.<Integer>builder().build());
+    }
+
+    private static PopulationIndex<Integer> population(final GlobalGarbageConfiguration globalConfig, final int size) {
+        final PopulationIndex<Integer> population = new PopulationIndex<>(globalConfig);
+        for (int id = 0; id < size; ++id) {
+            population.put(id, new UserGarbageConfiguration(DayOfWeek.of(1 + id % 7), id / 7 % 2, id / 14 % 2));
+        }
+        return population;
+    }
+
+    private static GlobalGarbageConfiguration globalConfig() {
+        return GlobalGarbageConfiguration.builder()
+                .setResetDay(DayOfWeek.SUNDAY)
+                .setStart(LocalDate.parse("2019-05-01"))
+                .setGarbageEnabled(true)
+                .setGarbageWeeks(2)
+                .setRecyclingEnabled(true)
+                .setRecyclingWeeks(2)
+                .setBulkDays(LocalDate.parse("2019-05-13"))
+                .build();
+    }
+
+    private static final class InMemorySink implements ReminderSink<Integer> {
+        private final Map<Integer, GarbageDay> reminders = new ConcurrentHashMap<>();
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void deliver(final List<Reminder<Integer>> batch) {
+            batchSizes.add(batch.size());
+            for (final Reminder<Integer> reminder : batch) {
+                reminders.put(reminder.getCustomerId(), reminder.getGarbageDay());
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.spinthechoice.garbage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ScheduleDeltaTest {
+    private static final LocalDate FROM = LocalDate.parse("2019-03-01");
+    private static final LocalDate TO = LocalDate.parse("2020-03-01");
+
+    @Test
+    void testAddHoliday() {
+        final GlobalGarbageConfiguration oldConfig = AmericanMunicipality.builder().build();
+        final GlobalGarbageConfiguration newConfig = AmericanMunicipality.builder()
+                .setHolidays(AmericanHolidays.newYearsEve(), AmericanHolidays.thanksgivingDayAfter(),
+                        AmericanHolidays.independenceDay())
+                .build();
+        final ScheduleDelta actual = ScheduleDelta.between(oldConfig, newConfig, FROM, TO);
+        assertThat(actual.isRotationChanged(), is(false));
+        // Independence Day is a Thursday
+        assertThat(actual.getChanges().stream().map(ScheduleChange::getDate).distinct().collect(toList()),
+                is(singletonList(LocalDate.parse("2019-07-04"))));
+        assertThat(actual.getChanges().stream().allMatch(change -> change.getNewFlags() == 0), is(true));
+        assertSameChanges(actual, oldConfig, newConfig);
+    }
+
+    @Test
+    void testMoveBulkWeek() {
+        final GlobalGarbageConfiguration oldConfig = AmericanMunicipality.builder().build();
+        final GlobalGarbageConfiguration newConfig = AmericanMunicipality.builder()
+                .setBulkDays(LocalDate.parse("2019-04-15"), LocalDate.parse("2019-12-30"))
+                .build();
+        final ScheduleDelta actual = ScheduleDelta.between(oldConfig, newConfig, FROM, TO);
+        assertThat(actual.isRotationChanged(), is(false));
+        // bulk collection leaves the week of April 8 and moves to the week of April 15
+        assertThat(actual.getChanges().stream().map(ScheduleChange::getDate).distinct().count(), is(14L));
+        assertSameChanges(actual, oldConfig, newConfig);
+    }
+
+    @Test
+    void testChangeLeapDays() {
+        final GlobalGarbageConfiguration oldConfig = AmericanMunicipality.builder().build();
+        final GlobalGarbageConfiguration newConfig = AmericanMunicipality.builder()
+                .setLeapDays(AmericanHolidays.memorialDay(), AmericanHolidays.christmas())
+                .build();
+        assertSameChanges(ScheduleDelta.between(oldConfig, newConfig, FROM, TO), oldConfig, newConfig);
+    }
+
+    @Test
+    void testChangeRotation() {
+        final GlobalGarbageConfiguration oldConfig = AmericanMunicipality.builder().build();
+        final GlobalGarbageConfiguration newConfig = AmericanMunicipality.builder()
+                .setGarbageWeeks(3)
+                .setRecyclingEnabled(false)
+                .build();
+        final ScheduleDelta actual = ScheduleDelta.between(oldConfig, newConfig, FROM, TO);
+        assertThat(actual.isRotationChanged(), is(true));
+        assertSameChanges(actual, oldConfig, newConfig);
+    }
+
+    @Test
+    void testSameConfiguration() {
+        final ScheduleDelta actual = ScheduleDelta.between(AmericanMunicipality.builder().build(),
+                AmericanMunicipality.builder().build(), FROM, TO);
+        assertThat(actual.getChanges().isEmpty(), is(true));
+    }
+
+    @Test
+    void testEndBeforeStart() {
+        assertThrows(IllegalArgumentException.class, () -> ScheduleDelta.between(
+                AmericanMunicipality.builder().build(), AmericanMunicipality.builder().build(), TO, FROM));
+    }
+
+    private static void assertSameChanges(final ScheduleDelta actual, final GlobalGarbageConfiguration oldConfig,
+                                          final GlobalGarbageConfiguration newConfig) {
+        for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            for (int garbageWeek = -1; garbageWeek <= 3; ++garbageWeek) {
+                for (int recyclingWeek = -1; recyclingWeek <= 3; ++recyclingWeek) {
+                    final UserGarbageConfiguration user =
+                            new UserGarbageConfiguration(dayOfWeek, garbageWeek, recyclingWeek);
+                    final Garbage before = new Garbage(oldConfig, user);
+                    final Garbage after = new Garbage(newConfig, user);
+                    final List<String> expected = new ArrayList<>();
+                    for (LocalDate date = FROM; date.isBefore(TO); date = date.plusDays(1)) {
+                        final int oldFlags = before.computeFlags(date.toEpochDay());
+                        final int newFlags = after.computeFlags(date.toEpochDay());
+                        if (oldFlags != newFlags) {
+                            expected.add(date + " " + oldFlags + " " + newFlags);
+                        }
+                    }
+                    assertThat(user.toString(), actual.getChanges(user).stream()
+                            .map(change -> change.getDate() + " " + change.getOldFlags() + " " + change.getNewFlags())
+                            .collect(toList()), is(expected));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.spinthechoice.garbage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ScheduleTableTest {
+    private static final LocalDate FROM = LocalDate.parse("2019-03-01");
+    private static final LocalDate TO = LocalDate.parse("2020-03-01");
+
+    @Test
+    void testComputeMatchesGarbage() throws IOException {
+        final GlobalGarbageConfiguration globalConfig = AmericanMunicipality.builder().build();
+        final Path path = write(globalConfig);
+        try {
+            final ScheduleTable classUnderTest = ScheduleTable.open(globalConfig, path);
+            assertThat(classUnderTest.getFrom(), is(FROM));
+            assertThat(classUnderTest.getTo(), is(TO));
+            // includes dates on either side of the table
+            for (LocalDate date = FROM.minusDays(10); date.isBefore(TO.plusDays(10)); date = date.plusDays(1)) {
+                for (final DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                    for (int garbageWeek = -1; garbageWeek <= 2; ++garbageWeek) {
+                        for (int recyclingWeek = -1; recyclingWeek <= 3; ++recyclingWeek) {
+                            final UserGarbageConfiguration user =
+                                    new UserGarbageConfiguration(dayOfWeek, garbageWeek, recyclingWeek);
+                            assertThat(date + " " + user, classUnderTest.computeFlags(user, date.toEpochDay()),
+                                    is(new Garbage(globalConfig, user).computeFlags(date.toEpochDay())));
+                        }
+                    }
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testComputeShiftsAfterLeapDay() throws IOException {
+        final GlobalGarbageConfiguration globalConfig = AmericanMunicipality.builder().build();
+        final Path path = write(globalConfig);
+        try {
+            final ScheduleTable classUnderTest = ScheduleTable.open(globalConfig, path);
+            final UserGarbageConfiguration user = new UserGarbageConfiguration(DayOfWeek.MONDAY, 0, 0);
+            // Memorial Day is a leap day, so Monday moves to Tuesday
+            assertThat(classUnderTest.compute(user, LocalDate.parse("2019-05-27")).isGarbageDay(), is(false));
+            assertThat(classUnderTest.compute(user, LocalDate.parse("2019-05-28")).isGarbageDay(), is(true));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testOpenOtherConfiguration() throws IOException {
+        final Path path = write(AmericanMunicipality.builder().build());
+        try {
+            assertThrows(IOException.class,
+                    () -> ScheduleTable.open(AmericanMunicipality.builder().setRecyclingWeeks(4).build(), path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testOpenOtherCalendar() throws IOException {
+        final Path path = write(AmericanMunicipality.builder().build());
+        try {
+            // the same schedule classes, with other holidays or another start
+            assertThrows(IOException.class, () -> ScheduleTable.open(AmericanMunicipality.builder()
+                    .setHolidays(AmericanHolidays.thanksgiving())
+                    .build(), path));
+            assertThrows(IOException.class, () -> ScheduleTable.open(AmericanMunicipality.builder()
+                    .setStart(LocalDate.parse("2019-05-08"))
+                    .build(), path));
+            assertThrows(IOException.class, () -> ScheduleTable.open(AmericanMunicipality.builder()
+                    .setBulkDays(LocalDate.parse("2019-04-08"))
+                    .build(), path));
+            // an equal configuration opens the table
+            assertThat(ScheduleTable.open(AmericanMunicipality.builder().build(), path).getFrom(), is(FROM));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testOpenNotTable() throws IOException {
+        final Path path = Files.createTempFile("garbage", ".table");
+        try {
+            Files.write(path, new byte[] {1, 2, 3, 4});
+            assertThrows(IOException.class, () -> ScheduleTable.open(AmericanMunicipality.builder().build(), path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testWriteEndBeforeStart() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ScheduleTable.write(AmericanMunicipality.builder().build(), TO, FROM, null));
+    }
+
+    private static Path write(final GlobalGarbageConfiguration globalConfig) throws IOException {
+        final Path path = Files.createTempFile("garbage", ".table");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ScheduleTable.write(globalConfig, FROM, TO, channel);
+        }
+        return path;
+    }
+}